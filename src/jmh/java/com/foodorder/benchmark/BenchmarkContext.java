@@ -0,0 +1,83 @@
+package com.foodorder.benchmark;
+
+import com.foodorder.OrderFeedbacksApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Boots the application without the web tier against the embedded H2 database, seeded by the
+ * bulk data generator (fixed seed) before any benchmark runs. One context per fork, shared by all
+ * threads. Volumes are JMH parameters, e.g. -p orders=10000,1000000,5000000.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+    
+    // Subsets of the generator vocabularies, used to build search inputs that hit data
+    static final String[] CUSTOMER_NAMES = {
+        "Kasun Perera", "Nimali Silva", "Chaminda Fernando", "Sanduni Jayawardena",
+        "Ruwan Wickramasinghe", "Dilini Rajapaksa", "Tharaka Gunasekara", "Priyanka Mendis"
+    };
+    
+    static final String[] CATEGORIES = {
+        "Food Quality Issue", "Delivery Problem", "Order Incorrect", "Payment Issue"
+    };
+    
+    @Param({"10000"})
+    public int orders;
+    
+    @Param({"0.5"})
+    public double ticketsPerOrder;
+    
+    @Param({"4"})
+    public int maxRepliesPerTicket;
+    
+    ConfigurableApplicationContext context;
+    long[] orderIds;
+    long[] ticketIds;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(OrderFeedbacksApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command line arguments, so they override application.properties
+                .run("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.foodorder=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--app.data.generator.enabled=true",
+                        "--app.data.generator.orders=" + orders,
+                        "--app.data.generator.tickets-per-order=" + ticketsPerOrder,
+                        "--app.data.generator.max-replies-per-ticket=" + maxRepliesPerTicket);
+        loadIds();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+    
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    private void loadIds() {
+        orderIds = ids("orders");
+        ticketIds = ids("tickets");
+    }
+    
+    private long[] ids(String table) {
+        return bean(JdbcTemplate.class).queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,29 @@
+package com.foodorder.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for mvn -Pbenchmark compile exec:exec. Accepts the usual JMH command line
+ * (e.g. -Dbenchmark.args="-p orders=10000,1000000 -t 4 DataLayer") and defaults to every benchmark
+ * in this package with the GC profiler on and JSON results in target/jmh-result.json.
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json");
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*");
+        }
+        new Runner(options.build()).run();
+    }
+}
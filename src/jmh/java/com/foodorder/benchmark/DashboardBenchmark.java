@@ -0,0 +1,108 @@
+package com.foodorder.benchmark;
+
+import com.foodorder.config.QueryCountInspector;
+import com.foodorder.dto.DashboardStatistics;
+import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.repository.TicketRepository;
+import com.foodorder.service.StatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard statistics: the grouped path (one query per table plus the top-customer lookups)
+ * against the per-value COUNT queries it replaced. Latency comes from JMH; the number of SQL
+ * statements per call (database round trips) is counted with QueryCountInspector and printed
+ * after each iteration. The query cache is emptied before every call so that the enum-keyed
+ * COUNTs of the old path really reach the database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DashboardBenchmark {
+    
+    @State(Scope.Thread)
+    public static class RoundTrips {
+        
+        long statements;
+        long calls;
+        Cache cache;
+        
+        @Setup(Level.Trial)
+        public void init(BenchmarkContext context) {
+            cache = context.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache();
+        }
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            calls = 0;
+        }
+        
+        @Setup(Level.Invocation)
+        public void before() {
+            cache.evictQueryRegions();
+            QueryCountInspector.reset();
+        }
+        
+        @TearDown(Level.Invocation)
+        public void after() {
+            statements += QueryCountInspector.getCount();
+            calls++;
+        }
+        
+        @TearDown(Level.Iteration)
+        public void print() {
+            System.out.printf("  [%.1f SQL statements per call]%n", calls == 0 ? 0.0 : (double) statements / calls);
+        }
+    }
+    
+    @Benchmark
+    public DashboardStatistics grouped(BenchmarkContext context, RoundTrips roundTrips) {
+        return context.bean(StatisticsService.class).getDashboardStatistics();
+    }
+    
+    // What the dashboard used to run: a COUNT per status and priority, per-category and top-customer groups
+    @Benchmark
+    public Map<String, Object> perValueCounts(BenchmarkContext context, RoundTrips roundTrips) {
+        TicketRepository tickets = context.bean(TicketRepository.class);
+        OrderRepository orders = context.bean(OrderRepository.class);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalTickets", tickets.count());
+        for (Ticket.TicketStatus status : Ticket.TicketStatus.values()) {
+            stats.put("tickets." + status, tickets.countByStatus(status));
+        }
+        for (Ticket.Priority priority : Ticket.Priority.values()) {
+            stats.put("priority." + priority, tickets.countByPriority(priority));
+        }
+        stats.put("ticketsByCategory", tickets.countTicketsByCategory());
+        stats.put("topCustomersByTickets", tickets.findTopCustomersByTicketCount(PageRequest.of(0, 5)));
+        stats.put("totalOrders", orders.count());
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            stats.put("orders." + status, orders.countByStatus(status));
+        }
+        stats.put("topCustomersByOrders", orders.findTopCustomersByOrderCount(PageRequest.of(0, 5)));
+        return stats;
+    }
+}
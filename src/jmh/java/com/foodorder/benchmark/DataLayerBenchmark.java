@@ -0,0 +1,104 @@
+package com.foodorder.benchmark;
+
+import com.foodorder.dto.DashboardStatistics;
+import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
+import com.foodorder.entity.TicketReply;
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.repository.TicketRepository;
+import com.foodorder.service.StatisticsService;
+import com.foodorder.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and sampled latency (p50..p99.99) for the hot repository and service calls.
+ * Run through BenchmarkRunner, which also attaches the GC profiler for allocation rates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DataLayerBenchmark {
+    
+    // Per-thread random inputs so threads don't all hit the same rows; drawing one costs a few ns
+    @State(Scope.Thread)
+    public static class Inputs {
+        
+        private final SplittableRandom random = new SplittableRandom(7);
+        private long[] ticketIds;
+        
+        @Setup(Level.Trial)
+        public void init(BenchmarkContext context) {
+            ticketIds = context.ticketIds;
+        }
+        
+        String customerName() {
+            String name = BenchmarkContext.CUSTOMER_NAMES[random.nextInt(BenchmarkContext.CUSTOMER_NAMES.length)];
+            return name.substring(0, name.indexOf(' '));
+        }
+        
+        String category() {
+            return BenchmarkContext.CATEGORIES[random.nextInt(BenchmarkContext.CATEGORIES.length)];
+        }
+        
+        <E extends Enum<E>> E pick(E[] values) {
+            return values[random.nextInt(values.length)];
+        }
+        
+        long ticketId() {
+            return ticketIds[random.nextInt(ticketIds.length)];
+        }
+    }
+    
+    @Benchmark
+    public List<Order> searchOrders(BenchmarkContext context, Inputs inputs) {
+        return context.bean(OrderRepository.class)
+                .searchOrders(inputs.customerName(), null, inputs.pick(Order.OrderStatus.values()), null, null);
+    }
+    
+    @Benchmark
+    public List<Ticket> searchTickets(BenchmarkContext context, Inputs inputs) {
+        return context.bean(TicketRepository.class)
+                .searchTickets(null, null, inputs.customerName(), inputs.category(),
+                        inputs.pick(Ticket.TicketStatus.values()), inputs.pick(Ticket.Priority.values()), null, null);
+    }
+    
+    @Benchmark
+    public List<Object[]> topCustomersByOrders(BenchmarkContext context) {
+        return context.bean(OrderRepository.class).findTopCustomersByOrderCount(PageRequest.of(0, 5));
+    }
+    
+    @Benchmark
+    public List<Object[]> topCustomersByTickets(BenchmarkContext context) {
+        return context.bean(TicketRepository.class).findTopCustomersByTicketCount(PageRequest.of(0, 5));
+    }
+    
+    @Benchmark
+    public DashboardStatistics dashboardStatistics(BenchmarkContext context) {
+        return context.bean(StatisticsService.class).getDashboardStatistics();
+    }
+    
+    // Write path: grows the replies table for the length of the run
+    @Benchmark
+    public TicketReply addReplyToTicket(BenchmarkContext context, Inputs inputs) {
+        TicketReply reply = new TicketReply("Thanks, we are looking into this.", "Support Team",
+                "support@foodordering.lk", null);
+        return context.bean(TicketService.class).addReplyToTicket(inputs.ticketId(), reply);
+    }
+}
@@ -0,0 +1,113 @@
+package com.foodorder.benchmark;
+
+import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
+import com.foodorder.service.CacheStatisticsService;
+import com.foodorder.service.OrderService;
+import com.foodorder.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detail-page latency with the second-level cache at a realistic hit rate: hotShare of the
+ * lookups go to a hot set of hotPercent of the ids (recent orders and open tickets get most
+ * views), the rest are uniform over all ids. The L2 hit ratio of each iteration is printed, e.g.
+ * -Dbenchmark.args="-p hotShare=0.5,0.8,0.95 DetailPage".
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DetailPageBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class Workload {
+        
+        @Param({"0.8"})
+        public double hotShare;
+        
+        @Param({"2"})
+        public double hotPercent;
+        
+        long[] orderIds;
+        long[] ticketIds;
+        TransactionTemplate readOnly;
+        CacheStatisticsService cacheStatistics;
+        
+        @Setup(Level.Trial)
+        public void init(BenchmarkContext context) {
+            orderIds = context.orderIds;
+            ticketIds = context.ticketIds;
+            readOnly = new TransactionTemplate(context.bean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            cacheStatistics = context.bean(CacheStatisticsService.class);
+        }
+        
+        @Setup(Level.Iteration)
+        public void resetStatistics() {
+            cacheStatistics.clearStatistics();
+        }
+        
+        @TearDown(Level.Iteration)
+        public void printHitRatio() {
+            Map<String, Object> statistics = cacheStatistics.getCacheStatistics();
+            long hits = (Long) statistics.get("secondLevelCacheHits");
+            long misses = (Long) statistics.get("secondLevelCacheMisses");
+            System.out.printf("  [L2 hits %d, misses %d, hit ratio %.3f]%n", hits, misses,
+                    hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Inputs {
+        
+        private final SplittableRandom random = new SplittableRandom(17);
+        
+        long pick(long[] ids, Workload workload) {
+            int hotSize = Math.max(1, (int) (ids.length * workload.hotPercent / 100));
+            int index = random.nextDouble() < workload.hotShare ? random.nextInt(hotSize) : random.nextInt(ids.length);
+            return ids[index];
+        }
+    }
+    
+    // /orders/{id}: one entity lookup, served from the Order region on a hit
+    @Benchmark
+    public Order orderDetail(BenchmarkContext context, Workload workload, Inputs inputs) {
+        return context.bean(OrderService.class).getOrderById(inputs.pick(workload.orderIds, workload)).orElseThrow();
+    }
+    
+    // Ticket and its replies through the Ticket region and the Ticket.replies collection region
+    @Benchmark
+    public int ticketWithRepliesCached(BenchmarkContext context, Workload workload, Inputs inputs) {
+        long id = inputs.pick(workload.ticketIds, workload);
+        return workload.readOnly.execute(status -> {
+            Ticket ticket = context.bean(TicketService.class).getTicketById(id).orElseThrow();
+            return ticket.getReplies().size();
+        });
+    }
+    
+    // /tickets/{id} as rendered today: one entity-graph query, which always reads the database
+    @Benchmark
+    public int ticketDetailQuery(BenchmarkContext context, Workload workload, Inputs inputs) {
+        long id = inputs.pick(workload.ticketIds, workload);
+        return context.bean(TicketService.class).getTicketDetail(id).orElseThrow().getReplies().size();
+    }
+}
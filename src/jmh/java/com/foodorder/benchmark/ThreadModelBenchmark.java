@@ -0,0 +1,158 @@
+package com.foodorder.benchmark;
+
+import com.foodorder.OrderFeedbacksApplication;
+import com.foodorder.loadtest.WorkloadMix;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual threads for the request path: the application runs on Tomcat (random port)
+ * with spring.threads.virtual.enabled set from the "threads" parameter, and each operation sends a
+ * burst of concurrent HTTP requests (ticket list, ticket detail and ticket creation, in the
+ * proportions of "mix") and waits for all of them. "platform" is Tomcat's default pool of 200
+ * threads, "virtual" runs each request on its own virtual thread. Both share the same Hikari pool,
+ * so the difference is scheduling and memory cost, not database capacity. Requests answered with
+ * 4xx/5xx or not answered (e.g. a pool timeout under overload) are reported as "failed" rather
+ * than aborting the trial. The virtual variant
+ * needs Java 21 and fails its trial with a clear message on older runtimes, e.g.
+ * -Dbenchmark.args="-p threads=platform,virtual -p burst=50,500 ThreadModel".
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+    
+    private static final int MAX_SAMPLE_IDS = 10_000;
+    
+    @Param({"platform", "virtual"})
+    public String threads;
+    
+    @Param({"500"})
+    public int burst;
+    
+    @Param({"10000"})
+    public int orders;
+    
+    // WorkloadMix request types and weights, separated by ';' because JMH splits -p values on ','
+    @Param({"tickets:25;ticket:50;create:25"})
+    public String mix;
+    
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private WorkloadMix requests;
+    
+    @Setup(Level.Trial)
+    public void start() {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running on "
+                    + System.getProperty("java.version"));
+        }
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(OrderFeedbacksApplication.class)
+                // Command line arguments, so they override application.properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.foodorder=WARN",
+                        // Request logging would be most of what is measured
+                        "--logging.level.org.springframework.web=WARN",
+                        // Templates parsed once, as in production, rather than on every request
+                        "--spring.thymeleaf.cache=true",
+                        "--spring.datasource.url=jdbc:h2:mem:threadmodel;DB_CLOSE_DELAY=-1",
+                        "--app.data.generator.enabled=true",
+                        "--app.data.generator.orders=" + orders);
+        
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        requests = new WorkloadMix("http://localhost:" + port, ids(jdbc, "orders"), ids(jdbc, "tickets"),
+                weights(mix), 11);
+        client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+    
+    // Per-iteration count of failed requests, reported next to the throughput
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        
+        public long failed;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            failed = 0;
+        }
+    }
+    
+    @Benchmark
+    public int burstOfRequests(Outcomes outcomes) {
+        List<CompletableFuture<HttpResponse<Void>>> calls = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            calls.add(client.sendAsync(requests.next().http(), HttpResponse.BodyHandlers.discarding()));
+        }
+        int succeeded = 0;
+        for (CompletableFuture<HttpResponse<Void>> call : calls) {
+            HttpResponse<Void> response = call.handle((r, error) -> error == null ? r : null).join();
+            // Form posts answer with a redirect, so 3xx counts as success
+            if (response != null && response.statusCode() < 400) {
+                succeeded++;
+            } else {
+                outcomes.failed++;
+            }
+        }
+        return succeeded;
+    }
+    
+    private static long[] ids(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id LIMIT " + MAX_SAMPLE_IDS, Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    private static Map<String, Integer> weights(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(";")) {
+            String[] pair = part.split(":");
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
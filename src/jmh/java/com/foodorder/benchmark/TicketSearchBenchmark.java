@@ -0,0 +1,69 @@
+package com.foodorder.benchmark;
+
+import com.foodorder.entity.Ticket;
+import com.foodorder.repository.TicketRepository;
+import com.foodorder.service.TicketSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text ticket search through the in-memory index (single term, AND of two terms, prefix)
+ * against the LIKE scan it replaces. Terms come from the generator's ticket and reply texts, so
+ * common terms match a large share of the tickets and exercise scoring and top-k selection.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class TicketSearchBenchmark {
+    
+    private static final int LIMIT = 500;
+    
+    private static final String[] TERMS = {"cold", "refund", "missing", "delivery", "rude", "charged"};
+    private static final String[] PAIRS = {"cold food", "missing order", "delivery late", "refund charged"};
+    private static final String[] PREFIXES = {"deliv*", "ref*", "canc*", "qual*"};
+    
+    @State(Scope.Thread)
+    public static class Inputs {
+        
+        private final SplittableRandom random = new SplittableRandom(13);
+        
+        String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+    
+    @Benchmark
+    public List<Long> indexSingleTerm(BenchmarkContext context, Inputs inputs) {
+        return context.bean(TicketSearchIndex.class).search(inputs.pick(TERMS), LIMIT);
+    }
+    
+    @Benchmark
+    public List<Long> indexTwoTerms(BenchmarkContext context, Inputs inputs) {
+        return context.bean(TicketSearchIndex.class).search(inputs.pick(PAIRS), LIMIT);
+    }
+    
+    @Benchmark
+    public List<Long> indexPrefix(BenchmarkContext context, Inputs inputs) {
+        return context.bean(TicketSearchIndex.class).search(inputs.pick(PREFIXES), LIMIT);
+    }
+    
+    // Baseline: the LIKE '%term%' search on the description column
+    @Benchmark
+    public List<Ticket> likeSingleTerm(BenchmarkContext context, Inputs inputs) {
+        return context.bean(TicketRepository.class)
+                .searchTickets(null, inputs.pick(TERMS), null, null, null, null, null, null);
+    }
+}
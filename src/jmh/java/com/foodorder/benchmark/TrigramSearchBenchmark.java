@@ -0,0 +1,97 @@
+package com.foodorder.benchmark;
+
+import com.foodorder.entity.Order;
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.service.OrderService;
+import com.foodorder.service.OrderTrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring customer lookups on orders: trigram index against the leading-wildcard LIKE it
+ * replaces. Email terms ("kasun.perera1234@") are selective and compare the full search path
+ * (index candidates + IN query vs LIKE scan); name fragments ("erera") match many orders and
+ * compare id lookups only, so loading thousands of entities does not hide the difference.
+ * Meant for large volumes, e.g. -Dbenchmark.args="-p orders=1000000 TrigramSearch".
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class TrigramSearchBenchmark {
+    
+    private static final int SAMPLE_SIZE = 1000;
+    private static final int NAME_FRAGMENT_LENGTH = 5;
+    
+    @State(Scope.Benchmark)
+    public static class Terms {
+        
+        String[] emailTerms;
+        String[] nameFragments;
+        
+        @Setup(Level.Trial)
+        public void init(BenchmarkContext context) {
+            JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+            List<String> emails = jdbc.queryForList(
+                    "SELECT customer_email FROM orders ORDER BY id LIMIT " + SAMPLE_SIZE, String.class);
+            emailTerms = emails.stream()
+                    .map(email -> email.substring(0, email.indexOf('@') + 1))
+                    .toArray(String[]::new);
+            List<String> names = jdbc.queryForList(
+                    "SELECT customer_name FROM orders ORDER BY id LIMIT " + SAMPLE_SIZE, String.class);
+            nameFragments = names.stream()
+                    .map(name -> name.substring(name.lastIndexOf(' ') + 1).toLowerCase(Locale.ROOT))
+                    .map(last -> last.length() <= NAME_FRAGMENT_LENGTH ? last
+                            : last.substring(last.length() - NAME_FRAGMENT_LENGTH))
+                    .toArray(String[]::new);
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Inputs {
+        
+        private final SplittableRandom random = new SplittableRandom(19);
+        
+        String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+    
+    @Benchmark
+    public List<Order> trigramEmailSearch(BenchmarkContext context, Terms terms, Inputs inputs) {
+        return context.bean(OrderService.class).searchOrders(null, inputs.pick(terms.emailTerms), null, null, null);
+    }
+    
+    @Benchmark
+    public List<Order> likeEmailSearch(BenchmarkContext context, Terms terms, Inputs inputs) {
+        return context.bean(OrderRepository.class).searchOrders(null, inputs.pick(terms.emailTerms), null, null, null);
+    }
+    
+    @Benchmark
+    public long[] trigramNameIds(BenchmarkContext context, Terms terms, Inputs inputs) {
+        return context.bean(OrderTrigramIndex.class).findByCustomerName(inputs.pick(terms.nameFragments));
+    }
+    
+    @Benchmark
+    public List<Long> likeNameIds(BenchmarkContext context, Terms terms, Inputs inputs) {
+        return context.bean(JdbcTemplate.class).queryForList(
+                "SELECT id FROM orders WHERE LOWER(customer_name) LIKE ?", Long.class,
+                "%" + inputs.pick(terms.nameFragments) + "%");
+    }
+}
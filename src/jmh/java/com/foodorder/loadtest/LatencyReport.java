@@ -0,0 +1,106 @@
+package com.foodorder.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint HDR latency histograms (microseconds, 3 significant digits) plus error counts.
+ * Latency is measured from the request's scheduled start, not from when it was actually sent,
+ * so a stalled server shows up as queueing delay instead of being hidden (coordinated omission).
+ */
+public class LatencyReport {
+    
+    private static final long MAX_TRACKABLE_MICROS = 3_600_000_000L;
+    
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    
+    public LatencyReport(List<String> endpoints) {
+        for (String endpoint : endpoints) {
+            histograms.put(endpoint, new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+    
+    public void record(String endpoint, long latencyMicros, boolean success) {
+        histograms.get(endpoint).recordValue(Math.min(Math.max(latencyMicros, 1), MAX_TRACKABLE_MICROS));
+        if (!success) {
+            errors.get(endpoint).increment();
+        }
+    }
+    
+    // Human-readable table; the header carries the run settings so reports can be compared
+    public void print(PrintStream out, Map<String, String> settings, double seconds) {
+        out.println();
+        out.println("Load test report");
+        settings.forEach((key, value) -> out.println("  " + key + " = " + value));
+        out.println();
+        out.printf(Locale.ROOT, "%-26s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue().copy();
+            long errorCount = errors.get(entry.getKey()).sum();
+            total.add(histogram);
+            totalErrors += errorCount;
+            printRow(out, entry.getKey(), histogram, errorCount, seconds);
+        }
+        printRow(out, "ALL", total, totalErrors, seconds);
+    }
+    
+    // Writes <run>.txt, one .hgrm percentile file per endpoint, and appends to summary.csv
+    public void write(Path directory, String runId, Map<String, String> settings, double seconds) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(runId + ".txt")),
+                true, StandardCharsets.UTF_8)) {
+            print(out, settings, seconds);
+        }
+        
+        Path summary = directory.resolve("summary.csv");
+        boolean newFile = !Files.exists(summary);
+        StringBuilder rows = new StringBuilder();
+        if (newFile) {
+            rows.append("run,settings,endpoint,requests,errors,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+        }
+        String settingsColumn = '"' + settings.toString().replace("\"", "'") + '"';
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue().copy();
+            String fileName = runId + "-" + entry.getKey().replaceAll("[^A-Za-z]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)),
+                    true, StandardCharsets.UTF_8)) {
+                // Scale to milliseconds for plotting with the standard HdrHistogram tools
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+            rows.append(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    runId, settingsColumn, entry.getKey(), histogram.getTotalCount(), errors.get(entry.getKey()).sum(),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0));
+        }
+        Files.writeString(summary, rows, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    
+    private void printRow(PrintStream out, String name, Histogram histogram, long errorCount, double seconds) {
+        out.printf(Locale.ROOT, "%-26s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errorCount, histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+    
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
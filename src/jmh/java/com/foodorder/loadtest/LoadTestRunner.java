@@ -0,0 +1,195 @@
+package com.foodorder.loadtest;
+
+import com.foodorder.OrderFeedbacksApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts the application on a random port (embedded H2, seeded by the bulk data generator) and
+ * drives it with an open-model workload: requests are issued at a fixed arrival rate whether or
+ * not earlier ones have finished, and latency is measured from each request's scheduled time.
+ *
+ * Arguments are key=value pairs:
+ *   rate=100 duration=60 warmup=10 orders=10000 seed=42 mix=orders:25,tickets:20,ticket:15,dashboard:10,reply:15,status:15
+ * Ticket creation (create, POST /tickets) only runs when the mix lists it.
+ * Any key containing a dot (e.g. spring.threads.virtual.enabled=true) is passed to the application,
+ * which makes runs with different settings directly comparable in target/loadtest/summary.csv.
+ */
+public class LoadTestRunner {
+    
+    private static final Path REPORT_DIRECTORY = Path.of("target", "loadtest");
+    private static final int MAX_SAMPLE_IDS = 10_000;
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> userProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            if (key.contains(".")) {
+                userProperties.put(key, arg.substring(eq + 1));
+            } else {
+                options.put(key, arg.substring(eq + 1));
+            }
+        }
+        
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int orders = Integer.parseInt(options.getOrDefault("orders", "10000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Map<String, Integer> weights = parseMix(options.get("mix"));
+        
+        List<String> appProperties = new ArrayList<>();
+        appProperties.add("--server.port=0");
+        appProperties.add("--spring.jpa.show-sql=false");
+        appProperties.add("--logging.level.root=WARN");
+        appProperties.add("--spring.devtools.restart.enabled=false");
+        appProperties.add("--app.data.generator.enabled=true");
+        appProperties.add("--app.data.generator.orders=" + orders);
+        appProperties.add("--app.data.generator.seed=" + seed);
+        userProperties.forEach((key, value) -> appProperties.add("--" + key + "=" + value));
+        
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderFeedbacksApplication.class)
+                // Command line arguments, so they override application.properties
+                .run(appProperties.toArray(new String[0]));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            long[] orderIds = sampleIds(jdbc, "orders");
+            long[] ticketIds = sampleIds(jdbc, "tickets");
+            
+            WorkloadMix mix = new WorkloadMix("http://localhost:" + port, orderIds, ticketIds, weights, seed);
+            HttpClient client = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            
+            Map<String, String> settings = new LinkedHashMap<>();
+            settings.put("rate", String.valueOf(rate));
+            settings.put("duration", duration + "s");
+            settings.put("warmup", warmup + "s");
+            settings.put("orders", String.valueOf(orders));
+            settings.put("seed", String.valueOf(seed));
+            settings.put("mix", weights.toString());
+            settings.put("virtualThreads", context.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"));
+            settings.put("javaVersion", System.getProperty("java.version"));
+            settings.put("cpus", String.valueOf(Runtime.getRuntime().availableProcessors()));
+            settings.putAll(userProperties);
+            
+            System.out.println("Warming up for " + warmup + "s at " + rate + " req/s...");
+            run(client, mix, rate, warmup, new LatencyReport(mix.getEndpoints()));
+            
+            System.out.println("Measuring for " + duration + "s at " + rate + " req/s...");
+            LatencyReport report = new LatencyReport(mix.getEndpoints());
+            run(client, mix, rate, duration, report);
+            
+            String runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            report.print(System.out, settings, duration);
+            report.write(REPORT_DIRECTORY, runId, settings, duration);
+            System.out.println("Report written to " + REPORT_DIRECTORY.resolve(runId + ".txt").toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+    
+    // Issue requests on a fixed schedule; a slow response never delays the next send
+    private static void run(HttpClient client, WorkloadMix mix, double rate, int seconds, LatencyReport report)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        // Requests sent but not answered yet, by sequence number; whoever removes one records it
+        Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+        
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long sequence = i;
+            WorkloadMix.Request request = mix.next();
+            inFlight.put(sequence, new InFlight(request.endpoint(), scheduled));
+            client.sendAsync(request.http(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (inFlight.remove(sequence) == null) {
+                            return;
+                        }
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                        // Form posts answer with a redirect, so 3xx counts as success
+                        boolean success = error == null && response.statusCode() < 400;
+                        report.record(request.endpoint(), micros, success);
+                    });
+        }
+        
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (!inFlight.isEmpty() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        
+        // Still unanswered at the deadline: count as errors with the latency they had reached,
+        // so a stalled server can't drop out of the report
+        long abandoned = 0;
+        for (Long sequence : inFlight.keySet()) {
+            InFlight request = inFlight.remove(sequence);
+            if (request != null) {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - request.scheduled());
+                report.record(request.endpoint(), micros, false);
+                abandoned++;
+            }
+        }
+        if (abandoned > 0) {
+            System.out.println(abandoned + " requests were still unanswered after " + DRAIN_TIMEOUT_SECONDS
+                    + "s and are counted as errors");
+        }
+    }
+    
+    private record InFlight(String endpoint, long scheduled) {
+    }
+    
+    private static long[] sampleIds(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id LIMIT " + MAX_SAMPLE_IDS, Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    private static Map<String, Integer> parseMix(String mix) {
+        if (mix == null || mix.isBlank()) {
+            return WorkloadMix.DEFAULT_WEIGHTS;
+        }
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            if (!WorkloadMix.DEFAULT_WEIGHTS.containsKey(pair[0].trim())) {
+                throw new IllegalArgumentException("Unknown request type in mix: " + pair[0]
+                        + " (known: " + WorkloadMix.DEFAULT_WEIGHTS.keySet() + ")");
+            }
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,131 @@
+package com.foodorder.loadtest;
+
+import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Weighted mix of read and write requests against the running application. Request choice and
+ * parameters come from a seeded random, so two runs with the same seed send the same sequence.
+ */
+public class WorkloadMix {
+    
+    // Default share of each request type, overridable with mix=orders:30,reply:20,...
+    static final Map<String, Integer> DEFAULT_WEIGHTS = new LinkedHashMap<>();
+    
+    static {
+        DEFAULT_WEIGHTS.put("orders", 25);
+        DEFAULT_WEIGHTS.put("tickets", 20);
+        DEFAULT_WEIGHTS.put("ticket", 15);
+        DEFAULT_WEIGHTS.put("dashboard", 10);
+        DEFAULT_WEIGHTS.put("reply", 15);
+        DEFAULT_WEIGHTS.put("status", 15);
+        // Not in the default mix, so earlier summary.csv rows stay comparable; enable with mix=...,create:10
+        DEFAULT_WEIGHTS.put("create", 0);
+    }
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    public record Request(String endpoint, HttpRequest http) {
+    }
+    
+    private record Entry(String endpoint, int weight, Function<SplittableRandom, HttpRequest> builder) {
+    }
+    
+    private final String baseUrl;
+    private final long[] orderIds;
+    private final long[] ticketIds;
+    private final SplittableRandom random;
+    private final List<Entry> entries = new ArrayList<>();
+    private final int totalWeight;
+    
+    public WorkloadMix(String baseUrl, long[] orderIds, long[] ticketIds, Map<String, Integer> weights, long seed) {
+        this.baseUrl = baseUrl;
+        this.orderIds = orderIds;
+        this.ticketIds = ticketIds;
+        this.random = new SplittableRandom(seed);
+        
+        add(weights, "orders", "GET /orders", r -> get("/orders?status=" + pick(r, Order.OrderStatus.values())));
+        add(weights, "tickets", "GET /tickets", r -> get("/tickets?status=" + pick(r, Ticket.TicketStatus.values())));
+        add(weights, "ticket", "GET /tickets/{id}", r -> get("/tickets/" + pick(r, ticketIds)));
+        add(weights, "dashboard", "GET /dashboard", r -> get("/dashboard"));
+        add(weights, "reply", "POST /tickets/{id}/reply", r -> post("/tickets/" + pick(r, ticketIds) + "/reply",
+                "message=" + encode("Any update on this? (load test)")
+                        + "&authorName=" + encode("Load Test") + "&authorEmail=" + encode("loadtest@foodordering.lk")));
+        add(weights, "status", "POST /orders/{id}/status", r -> post("/orders/" + pick(r, orderIds) + "/status",
+                "status=" + pick(r, Order.OrderStatus.values())));
+        add(weights, "create", "POST /tickets", r -> post("/tickets",
+                "title=" + encode("Late delivery (load test)")
+                        + "&description=" + encode("The order arrived much later than promised.")
+                        + "&priority=" + pick(r, Ticket.Priority.values())
+                        + "&category=" + encode("Delivery Problem")
+                        + "&customerName=" + encode("Load Test") + "&customerEmail=" + encode("loadtest@foodordering.lk")
+                        + "&customerPhone=" + encode("+94771234567")));
+        totalWeight = entries.stream().mapToInt(Entry::weight).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("Workload mix has no requests");
+        }
+    }
+    
+    // Called only from the dispatcher thread
+    public Request next() {
+        int pick = random.nextInt(totalWeight);
+        for (Entry entry : entries) {
+            if (pick < entry.weight()) {
+                return new Request(entry.endpoint(), entry.builder().apply(random));
+            }
+            pick -= entry.weight();
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+    
+    public List<String> getEndpoints() {
+        return entries.stream().map(Entry::endpoint).toList();
+    }
+    
+    private void add(Map<String, Integer> weights, String key, String endpoint,
+                     Function<SplittableRandom, HttpRequest> builder) {
+        int weight = weights.getOrDefault(key, 0);
+        boolean needsTickets = key.equals("ticket") || key.equals("reply");
+        boolean needsOrders = key.equals("status");
+        if (weight <= 0 || (needsTickets && ticketIds.length == 0) || (needsOrders && orderIds.length == 0)) {
+            return;
+        }
+        entries.add(new Entry(endpoint, weight, builder));
+    }
+    
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+    
+    private HttpRequest post(String path, String form) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+    
+    private static <E> E pick(SplittableRandom random, E[] values) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static long pick(SplittableRandom random, long[] values) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
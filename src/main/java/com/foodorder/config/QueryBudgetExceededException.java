@@ -0,0 +1,14 @@
+package com.foodorder.config;
+
+/**
+ * Thrown in FAIL mode when a request issues more SQL statements than its budget allows,
+ * or repeats one statement shape often enough to look like an N+1 pattern.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
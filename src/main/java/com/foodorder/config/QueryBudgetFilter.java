@@ -0,0 +1,106 @@
+package com.foodorder.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request issues, including those run while the view renders
+ * (lazy loads from templates), and checks them against the endpoint's budget. Statement shapes
+ * that repeat within one request are reported as suspected N+1 patterns.
+ * A filter rather than a HandlerInterceptor so that FAIL mode can propagate its exception to the
+ * caller (e.g. MockMvc) after rendering has finished.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+    
+    private static final int MAX_SHAPE_LENGTH = 200;
+    
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    public QueryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/webjars/") || path.startsWith("/h2-console") || path.startsWith("/actuator");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountInspector.reset();
+        try {
+            chain.doFilter(request, response);
+            check(request);
+        } finally {
+            QueryCountInspector.clear();
+        }
+    }
+    
+    private void check(HttpServletRequest request) {
+        int count = QueryCountInspector.getCount();
+        Object matched = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String pattern = matched != null ? matched.toString() : "UNKNOWN";
+        String endpoint = request.getMethod() + " " + pattern;
+        
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements issued per request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern)
+                .register(meterRegistry)
+                .record(count);
+        log.debug("{} {} issued {} SQL statement(s)", request.getMethod(), request.getRequestURI(), count);
+        
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<String> problems = new ArrayList<>();
+        int limit = properties.limitFor(pattern);
+        if (limit > 0 && count > limit) {
+            problems.add(count + " statements exceed the budget of " + limit);
+        }
+        for (Map.Entry<String, Integer> shape : QueryCountInspector.getShapes().entrySet()) {
+            if (shape.getValue() >= properties.getRepeatThreshold() && isLoad(shape.getKey())) {
+                problems.add("suspected N+1: " + shape.getValue() + "x " + abbreviate(shape.getKey()));
+            }
+        }
+        if (problems.isEmpty()) {
+            return;
+        }
+        
+        String message = endpoint + " (" + request.getRequestURI() + "): " + String.join("; ", problems);
+        if (properties.getMode() == QueryBudgetProperties.Mode.FAIL) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn("Query budget: {}", message);
+    }
+    
+    // Only repeated reads indicate N+1; batched writes and pooled sequence calls repeat by design
+    private boolean isLoad(String shape) {
+        String lower = shape.toLowerCase(Locale.ROOT);
+        return lower.startsWith("select") && !lower.contains("next value for") && !lower.contains("nextval(");
+    }
+    
+    private String abbreviate(String sql) {
+        return sql.length() <= MAX_SHAPE_LENGTH ? sql : sql.substring(0, MAX_SHAPE_LENGTH) + "...";
+    }
+}
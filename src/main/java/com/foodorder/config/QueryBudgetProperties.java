@@ -0,0 +1,76 @@
+package com.foodorder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint SQL statement budgets, keyed by the handler's URL pattern (e.g. /tickets/{id}).
+ * Endpoints without an entry fall back to defaultLimit; 0 means unlimited.
+ */
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+    
+    public enum Mode {
+        // Log a warning and carry on
+        LOG,
+        // Throw QueryBudgetExceededException after the request (meant for tests)
+        FAIL
+    }
+    
+    private boolean enabled = true;
+    
+    private Mode mode = Mode.LOG;
+    
+    private int defaultLimit = 0;
+    
+    private Map<String, Integer> limits = new LinkedHashMap<>();
+    
+    // A statement shape running this many times in one request is reported as a suspected N+1
+    private int repeatThreshold = 3;
+    
+    public int limitFor(String pattern) {
+        return limits.getOrDefault(pattern, defaultLimit);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+    
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+    
+    public void setDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+    
+    public Map<String, Integer> getLimits() {
+        return limits;
+    }
+    
+    public void setLimits(Map<String, Integer> limits) {
+        this.limits = limits;
+    }
+    
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+    
+    public void setRepeatThreshold(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+}
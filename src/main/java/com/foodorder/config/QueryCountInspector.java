@@ -0,0 +1,71 @@
+package com.foodorder.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate statement inspector that counts SQL statements issued on the current thread.
+ * Registered through {@code hibernate.session_factory.statement_inspector}; Hibernate creates
+ * the instance itself, so the per-request state lives in a static ThreadLocal.
+ * While a request is being tracked it also counts statements per normalized shape, so the same
+ * query repeated with different ids (an N+1 pattern) shows up as one shape with a high count.
+ */
+public class QueryCountInspector implements StatementInspector {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private static final ThreadLocal<RequestStatements> STATEMENTS = ThreadLocal.withInitial(RequestStatements::new);
+    
+    private static class RequestStatements {
+        int count;
+        // Only populated between reset() and clear(), i.e. inside a tracked request
+        Map<String, Integer> shapes;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = STATEMENTS.get();
+        statements.count++;
+        if (statements.shapes != null) {
+            statements.shapes.merge(shapeOf(sql), 1, Integer::sum);
+        }
+        return sql;
+    }
+    
+    // Start tracking a request on this thread
+    public static void reset() {
+        RequestStatements statements = STATEMENTS.get();
+        statements.count = 0;
+        statements.shapes = new HashMap<>();
+    }
+    
+    public static int getCount() {
+        return STATEMENTS.get().count;
+    }
+    
+    // Statement shape -> number of times it ran since reset()
+    public static Map<String, Integer> getShapes() {
+        Map<String, Integer> shapes = STATEMENTS.get().shapes;
+        return shapes == null ? Map.of() : shapes;
+    }
+    
+    public static void clear() {
+        STATEMENTS.remove();
+    }
+    
+    // Literals become ?, IN lists collapse to one placeholder, whitespace is normalized
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,38 @@
+package com.foodorder.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+
+/**
+ * Active only when spring.threads.virtual.enabled=true on Java 21+. Spring Boot then runs Tomcat
+ * requests, the task executor and the scheduler on virtual threads; concurrency against the
+ * database is bounded by the Hikari pool instead of the request thread count.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    // Request concurrency is no longer capped by Tomcat's thread pool, so the Hikari pool is the
+    // limit: requests beyond it queue for up to connection-timeout and then fail
+    @EventListener(ApplicationReadyEvent.class)
+    public void logPoolSizing() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            log.info("Virtual threads enabled: at most {} concurrent JDBC connections, waiting up to {} ms for one",
+                    hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+        }
+    }
+}
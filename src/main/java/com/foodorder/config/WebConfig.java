@@ -0,0 +1,21 @@
+package com.foodorder.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class WebConfig {
+    
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetProperties properties,
+                                                                       MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,54 @@
+package com.foodorder.controller;
+
+import com.foodorder.service.CacheStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+@Controller
+@RequestMapping("/admin")
+public class AdminController {
+    
+    static final String TOKEN_HEADER = "X-Admin-Token";
+    
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+    
+    @Value("${app.admin.token:}")
+    private String adminToken;
+    
+    @GetMapping("/cache-statistics")
+    @ResponseBody
+    public Map<String, Object> cacheStatistics() {
+        return cacheStatisticsService.getCacheStatistics();
+    }
+    
+    // Resetting wipes the counters everyone else is reading, so it needs the configured admin token
+    @PostMapping("/cache-statistics/reset")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> resetCacheStatistics(
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (!isAdmin(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        cacheStatisticsService.clearStatistics();
+        return ResponseEntity.ok(cacheStatisticsService.getCacheStatistics());
+    }
+    
+    // Constant-time comparison; an unset token disables the endpoint
+    private boolean isAdmin(String token) {
+        return !adminToken.isEmpty() && token != null
+                && MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,12 +1,16 @@
 package com.foodorder.controller;
 
+import com.foodorder.dto.DashboardStatistics;
+import com.foodorder.service.DashboardPushService;
 import com.foodorder.service.StatisticsService;
+import com.foodorder.service.TicketSlaTracker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
-
-import java.util.Map;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Controller
 public class HomeController {
@@ -14,6 +18,12 @@ public class HomeController {
     @Autowired
     private StatisticsService statisticsService;
     
+    @Autowired
+    private DashboardPushService dashboardPushService;
+    
+    @Autowired
+    private TicketSlaTracker ticketSlaTracker;
+    
     @GetMapping("/")
     public String home() {
         return "redirect:/dashboard";
@@ -21,33 +31,23 @@ public class HomeController {
     
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
-        Map<String, Object> stats = statisticsService.getDashboardStatistics();
+        DashboardStatistics stats = statisticsService.getDashboardStatistics();
         model.addAttribute("stats", stats);
         
         // Add individual statistics for easier access in template
-        model.addAttribute("totalTickets", stats.get("totalTickets"));
-        model.addAttribute("openTickets", stats.get("openTickets"));
-        model.addAttribute("inProgressTickets", stats.get("inProgressTickets"));
-        model.addAttribute("resolvedTickets", stats.get("resolvedTickets"));
-        model.addAttribute("closedTickets", stats.get("closedTickets"));
+        model.addAllAttributes(stats.toViewModel());
         
-        model.addAttribute("urgentTickets", stats.get("urgentTickets"));
-        model.addAttribute("highPriorityTickets", stats.get("highPriorityTickets"));
-        model.addAttribute("mediumPriorityTickets", stats.get("mediumPriorityTickets"));
-        model.addAttribute("lowPriorityTickets", stats.get("lowPriorityTickets"));
-        
-        model.addAttribute("totalOrders", stats.get("totalOrders"));
-        model.addAttribute("pendingOrders", stats.get("pendingOrders"));
-        model.addAttribute("confirmedOrders", stats.get("confirmedOrders"));
-        model.addAttribute("preparingOrders", stats.get("preparingOrders"));
-        model.addAttribute("outForDeliveryOrders", stats.get("outForDeliveryOrders"));
-        model.addAttribute("deliveredOrders", stats.get("deliveredOrders"));
-        model.addAttribute("cancelledOrders", stats.get("cancelledOrders"));
-        
-        model.addAttribute("ticketsByCategory", stats.get("ticketsByCategory"));
-        model.addAttribute("topCustomersByTickets", stats.get("topCustomersByTickets"));
-        model.addAttribute("topCustomersByOrders", stats.get("topCustomersByOrders"));
+        // Ticket SLA percentiles, read from in-memory sketches (no queries)
+        model.addAttribute("slaRows", ticketSlaTracker.getSlaRows());
+        model.addAttribute("slaWindowDays", ticketSlaTracker.getWindowDays());
         
         return "dashboard";
     }
+    
+    // Live dashboard updates: a snapshot on connect, then coalesced deltas
+    @GetMapping(path = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter dashboardStream() {
+        return dashboardPushService.subscribe();
+    }
 }
@@ -1,18 +1,36 @@
 package com.foodorder.controller;
 
+import com.foodorder.dto.BulkOrderResult;
+import com.foodorder.dto.BulkTransitionResult;
+import com.foodorder.dto.ItemDemand;
+import com.foodorder.dto.KeysetPage;
+import com.foodorder.dto.OrderRollupBucket;
+import com.foodorder.dto.OrderSuggestion;
 import com.foodorder.entity.Order;
+import com.foodorder.entity.OrderRollup;
+import com.foodorder.service.ExportService;
+import com.foodorder.service.OrderRollupService;
 import com.foodorder.service.OrderService;
+import com.foodorder.service.StatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -22,23 +40,42 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private StatisticsService statisticsService;
+    
+    @Autowired
+    private OrderRollupService orderRollupService;
+    
+    @Value("${app.orders.bulk.max-items:10000}")
+    private int maxBulkItems;
+    
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_LOOKUP_RESULTS = 25;
+    private static final int MAX_ITEM_RESULTS = 100;
+    private static final int DEFAULT_ROLLUP_DAYS = 30;
+    
     @GetMapping
     public String listOrders(@RequestParam(required = false) String customerName,
                            @RequestParam(required = false) String customerEmail,
                            @RequestParam(required = false) Order.OrderStatus status,
                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+                           @RequestParam(required = false) String after,
+                           @RequestParam(required = false) String before,
+                           @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
                            Model model) {
         
-        List<Order> orders;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetPage<Order> page = orderService.getOrdersPage(customerName, customerEmail, status,
+                startDate, endDate, after, before, pageSize);
         
-        if (customerName != null || customerEmail != null || status != null || startDate != null || endDate != null) {
-            orders = orderService.searchOrders(customerName, customerEmail, status, startDate, endDate);
-        } else {
-            orders = orderService.getAllOrders();
-        }
-        
-        model.addAttribute("orders", orders);
+        model.addAttribute("orders", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("size", pageSize);
         model.addAttribute("customerName", customerName);
         model.addAttribute("customerEmail", customerEmail);
         model.addAttribute("status", status);
@@ -49,6 +86,94 @@ public class OrderController {
         return "orders/list";
     }
     
+    @PostMapping("/bulk")
+    @ResponseBody
+    public ResponseEntity<BulkOrderResult> bulkCreateOrders(@RequestBody List<Order> orders) {
+        if (orders.size() > maxBulkItems) {
+            BulkOrderResult rejected = new BulkOrderResult(orders.size());
+            rejected.addFailure(-1, List.of("Too many orders in one call (max " + maxBulkItems + ")"));
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(rejected);
+        }
+        return ResponseEntity.ok(orderService.createOrders(orders));
+    }
+    
+    @PostMapping("/bulk-status")
+    @ResponseBody
+    public BulkTransitionResult bulkUpdateOrderStatus(@RequestParam List<Long> ids,
+                                                      @RequestParam Order.OrderStatus expected,
+                                                      @RequestParam Order.OrderStatus status) {
+        return orderService.transitionOrderStatus(ids, expected, status);
+    }
+    
+    @GetMapping("/lookup")
+    @ResponseBody
+    public List<OrderSuggestion> lookupOrders(@RequestParam(defaultValue = "") String q,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        return orderService.lookupOrders(q, Math.max(1, Math.min(limit, MAX_LOOKUP_RESULTS)));
+    }
+    
+    @GetMapping("/items/demand")
+    @ResponseBody
+    public List<ItemDemand> itemDemand(@RequestParam(required = false) List<Order.OrderStatus> status,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+                                       @RequestParam(defaultValue = "10") int limit) {
+        return statisticsService.getItemDemand(status, startDate, endDate, Math.max(1, Math.min(limit, MAX_ITEM_RESULTS)));
+    }
+    
+    @GetMapping("/items/kitchen")
+    @ResponseBody
+    public List<ItemDemand> kitchenDemand(@RequestParam(defaultValue = "" + MAX_ITEM_RESULTS) int limit) {
+        return statisticsService.getKitchenDemand(Math.max(1, Math.min(limit, MAX_ITEM_RESULTS)));
+    }
+    
+    @GetMapping("/items/per-order")
+    @ResponseBody
+    public Map<String, Object> itemsPerOrder(@RequestParam(required = false) List<Order.OrderStatus> status,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return statisticsService.getItemsPerOrder(status, startDate, endDate);
+    }
+    
+    @GetMapping("/rollups")
+    @ResponseBody
+    public List<OrderRollupBucket> orderRollups(@RequestParam(defaultValue = "DAY") OrderRollup.Granularity granularity,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        LocalDateTime to = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime from = startDate != null ? startDate : to.minusDays(DEFAULT_ROLLUP_DAYS);
+        return orderRollupService.getBuckets(granularity, from, to);
+    }
+    
+    @GetMapping("/rollups/summary")
+    @ResponseBody
+    public OrderRollupBucket orderRollupSummary(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        LocalDateTime to = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime from = startDate != null ? startDate : to.minusDays(DEFAULT_ROLLUP_DAYS);
+        return orderRollupService.summarize(from, to);
+    }
+    
+    @GetMapping("/export")
+    public void exportOrders(@RequestParam(required = false) String customerName,
+                             @RequestParam(required = false) String customerEmail,
+                             @RequestParam(required = false) Order.OrderStatus status,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+                             @RequestParam(defaultValue = "CSV") ExportService.ExportFormat format,
+                             HttpServletResponse response) throws IOException {
+        prepareExport(response, "orders", format);
+        exportService.exportOrders(customerName, customerEmail, status, startDate, endDate,
+                format, response.getWriter());
+    }
+    
+    private void prepareExport(HttpServletResponse response, String name, ExportService.ExportFormat format) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+    }
+    
     @GetMapping("/new")
     public String showCreateForm(Model model) {
         model.addAttribute("order", new Order());
@@ -1,21 +1,31 @@
 package com.foodorder.controller;
 
+import com.foodorder.dto.BulkTransitionResult;
+import com.foodorder.dto.KeysetPage;
+import com.foodorder.dto.SlaRow;
 import com.foodorder.entity.Order;
 import com.foodorder.entity.Ticket;
 import com.foodorder.entity.TicketReply;
+import com.foodorder.service.ExportService;
 import com.foodorder.service.OrderService;
 import com.foodorder.service.TicketService;
+import com.foodorder.service.TicketSlaTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -28,8 +38,18 @@ public class TicketController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private TicketSlaTracker ticketSlaTracker;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     @GetMapping
-    public String listTickets(@RequestParam(required = false) String title,
+    public String listTickets(@RequestParam(required = false) String q,
+            @RequestParam(required = false) String title,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) String customerName,
             @RequestParam(required = false) String category,
@@ -37,19 +57,22 @@ public class TicketController {
             @RequestParam(required = false) Ticket.Priority priority,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "NEWEST") TicketService.SortOrder sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
             Model model) {
 
-        List<Ticket> tickets;
-
-        if (title != null || description != null || customerName != null || category != null ||
-                status != null || priority != null || startDate != null || endDate != null) {
-            tickets = ticketService.searchTickets(title, description, customerName, category,
-                    status, priority, startDate, endDate);
-        } else {
-            tickets = ticketService.getAllTickets();
-        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetPage<Ticket> page = ticketService.getTicketsPage(q, title, description, customerName, category,
+                status, priority, startDate, endDate, sort, after, before, pageSize);
 
-        model.addAttribute("tickets", tickets);
+        model.addAttribute("tickets", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("sort", sort);
+        model.addAttribute("sortOrders", TicketService.SortOrder.values());
+        model.addAttribute("q", q);
         model.addAttribute("title", title);
         model.addAttribute("description", description);
         model.addAttribute("customerName", customerName);
@@ -65,6 +88,39 @@ public class TicketController {
         return "tickets/list";
     }
 
+    @GetMapping("/export")
+    public void exportTickets(@RequestParam(required = false) String title,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Ticket.TicketStatus status,
+            @RequestParam(required = false) Ticket.Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "CSV") ExportService.ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        prepareExport(response, "tickets", format);
+        exportService.exportTickets(title, description, customerName, category, status, priority,
+                startDate, endDate, format, response.getWriter());
+    }
+
+    @GetMapping("/replies/export")
+    public void exportReplies(@RequestParam(required = false) Long ticketId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "CSV") ExportService.ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        prepareExport(response, "ticket-replies", format);
+        exportService.exportReplies(ticketId, startDate, endDate, format, response.getWriter());
+    }
+
+    private void prepareExport(HttpServletResponse response, String name, ExportService.ExportFormat format) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+    }
+
     @GetMapping("/new")
     public String showCreateForm(@RequestParam(required = false) Long orderId, Model model) {
         Ticket ticket = new Ticket();
@@ -81,7 +137,6 @@ public class TicketController {
         }
 
         model.addAttribute("ticket", ticket);
-        model.addAttribute("orders", orderService.getAllOrders());
         model.addAttribute("priorities", Ticket.Priority.values());
         model.addAttribute("categories", getDefaultCategories());
 
@@ -94,7 +149,6 @@ public class TicketController {
             Model model,
             RedirectAttributes redirectAttributes) {
         if (result.hasErrors()) {
-            model.addAttribute("orders", orderService.getAllOrders());
             model.addAttribute("priorities", Ticket.Priority.values());
             model.addAttribute("categories", getDefaultCategories());
             return "tickets/form";
@@ -112,10 +166,10 @@ public class TicketController {
 
     @GetMapping("/{id}")
     public String viewTicket(@PathVariable Long id, Model model) {
-        Optional<Ticket> ticket = ticketService.getTicketById(id);
+        Optional<Ticket> ticket = ticketService.getTicketDetail(id);
         if (ticket.isPresent()) {
             Ticket ticketEntity = ticket.get();
-            List<TicketReply> replies = ticketService.getRepliesForTicket(id);
+            List<TicketReply> replies = ticketEntity.getReplies();
 
             model.addAttribute("ticket", ticketEntity);
             model.addAttribute("replies", replies);
@@ -142,7 +196,6 @@ public class TicketController {
             }
 
             model.addAttribute("ticket", ticketEntity);
-            model.addAttribute("orders", orderService.getAllOrders());
             model.addAttribute("priorities", Ticket.Priority.values());
             model.addAttribute("ticketStatuses", Ticket.TicketStatus.values());
             model.addAttribute("categories", getDefaultCategories());
@@ -172,7 +225,6 @@ public class TicketController {
         }
 
         if (result.hasErrors()) {
-            model.addAttribute("orders", orderService.getAllOrders());
             model.addAttribute("priorities", Ticket.Priority.values());
             model.addAttribute("ticketStatuses", Ticket.TicketStatus.values());
             model.addAttribute("categories", getDefaultCategories());
@@ -214,6 +266,28 @@ public class TicketController {
         return "redirect:/tickets/" + id;
     }
 
+    @PostMapping("/bulk-status")
+    @ResponseBody
+    public BulkTransitionResult bulkUpdateTicketStatus(@RequestParam List<Long> ids,
+            @RequestParam Ticket.TicketStatus expected,
+            @RequestParam Ticket.TicketStatus status) {
+        return ticketService.transitionTicketStatus(ids, expected, status);
+    }
+
+    // First-response and resolution percentiles; without days, the whole SLA window
+    @GetMapping("/sla")
+    @ResponseBody
+    public List<SlaRow> slaStatistics(@RequestParam(required = false) Integer days) {
+        return days == null ? ticketSlaTracker.getSlaRows() : ticketSlaTracker.getSlaRows(days);
+    }
+
+    // Raw sketches (sparse bucket counts) for merging SLA statistics across nodes
+    @GetMapping("/sla/sketches")
+    @ResponseBody
+    public Map<String, Map<Integer, Long>> slaSketches(@RequestParam(defaultValue = "30") int days) {
+        return ticketSlaTracker.exportSketches(days);
+    }
+
     @PostMapping("/{id}/reply")
     public String addReply(@PathVariable Long id,
             @Valid @ModelAttribute("newReply") TicketReply reply,
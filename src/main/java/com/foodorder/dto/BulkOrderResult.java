@@ -0,0 +1,75 @@
+package com.foodorder.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk order ingestion call: ids of created orders plus per-item failures.
+ */
+public class BulkOrderResult {
+    
+    private final int received;
+    private final List<Long> createdIds = new ArrayList<>();
+    private final List<ItemFailure> failures = new ArrayList<>();
+    private long elapsedMillis;
+    
+    public BulkOrderResult(int received) {
+        this.received = received;
+    }
+    
+    public void addCreated(Long id) {
+        createdIds.add(id);
+    }
+    
+    public void addFailure(int index, List<String> errors) {
+        failures.add(new ItemFailure(index, errors));
+    }
+    
+    public int getReceived() {
+        return received;
+    }
+    
+    public int getCreated() {
+        return createdIds.size();
+    }
+    
+    public List<Long> getCreatedIds() {
+        return createdIds;
+    }
+    
+    public List<ItemFailure> getFailures() {
+        return failures;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    // Inserted orders per second for this call
+    public double getOrdersPerSecond() {
+        return elapsedMillis == 0 ? createdIds.size() * 1000.0 : createdIds.size() * 1000.0 / elapsedMillis;
+    }
+    
+    public static class ItemFailure {
+        
+        private final int index;
+        private final List<String> errors;
+        
+        public ItemFailure(int index, List<String> errors) {
+            this.index = index;
+            this.errors = errors;
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.foodorder.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk status transition: which of the requested ids moved to the target status
+ * and which were skipped (missing, or not in the expected status).
+ */
+public class BulkTransitionResult {
+    
+    private final String fromStatus;
+    private final String toStatus;
+    private final List<Long> transitionedIds = new ArrayList<>();
+    private final List<Long> skippedIds = new ArrayList<>();
+    
+    public BulkTransitionResult(String fromStatus, String toStatus) {
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+    
+    public String getFromStatus() {
+        return fromStatus;
+    }
+    
+    public String getToStatus() {
+        return toStatus;
+    }
+    
+    public List<Long> getTransitionedIds() {
+        return transitionedIds;
+    }
+    
+    public List<Long> getSkippedIds() {
+        return skippedIds;
+    }
+}
@@ -0,0 +1,167 @@
+package com.foodorder.dto;
+
+import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed snapshot of everything the dashboard shows.
+ * Ticket counts are kept per (status, priority) so totals and both distributions
+ * can be derived from a single grouped query.
+ */
+public class DashboardStatistics {
+    
+    private final long[][] ticketCounts = new long[Ticket.TicketStatus.values().length][Ticket.Priority.values().length];
+    private final long[] orderCounts = new long[Order.OrderStatus.values().length];
+    private final Map<String, Long> ticketsByCategory = new LinkedHashMap<>();
+    private List<Object[]> topCustomersByTickets = new ArrayList<>();
+    private List<Object[]> topCustomersByOrders = new ArrayList<>();
+    
+    public void addTicketCount(Ticket.TicketStatus status, Ticket.Priority priority, String category, long count) {
+        ticketCounts[status.ordinal()][priority.ordinal()] += count;
+        ticketsByCategory.merge(category, count, Long::sum);
+    }
+    
+    public void addOrderCount(Order.OrderStatus status, long count) {
+        orderCounts[status.ordinal()] += count;
+    }
+    
+    // Ticket statistics
+    public long getTotalTickets() {
+        long total = 0;
+        for (long[] row : ticketCounts) {
+            for (long count : row) {
+                total += count;
+            }
+        }
+        return total;
+    }
+    
+    public long getTicketCount(Ticket.TicketStatus status) {
+        long total = 0;
+        for (long count : ticketCounts[status.ordinal()]) {
+            total += count;
+        }
+        return total;
+    }
+    
+    public long getTicketCount(Ticket.Priority priority) {
+        long total = 0;
+        for (long[] row : ticketCounts) {
+            total += row[priority.ordinal()];
+        }
+        return total;
+    }
+    
+    public long getTicketCount(Ticket.TicketStatus status, Ticket.Priority priority) {
+        return ticketCounts[status.ordinal()][priority.ordinal()];
+    }
+    
+    public Map<Ticket.TicketStatus, Long> getTicketStatusDistribution() {
+        Map<Ticket.TicketStatus, Long> distribution = new EnumMap<>(Ticket.TicketStatus.class);
+        for (Ticket.TicketStatus status : Ticket.TicketStatus.values()) {
+            distribution.put(status, getTicketCount(status));
+        }
+        return distribution;
+    }
+    
+    public Map<Ticket.Priority, Long> getTicketPriorityDistribution() {
+        Map<Ticket.Priority, Long> distribution = new EnumMap<>(Ticket.Priority.class);
+        for (Ticket.Priority priority : Ticket.Priority.values()) {
+            distribution.put(priority, getTicketCount(priority));
+        }
+        return distribution;
+    }
+    
+    // Category counts as [category, count] rows, largest first
+    public List<Object[]> getTicketsByCategory() {
+        List<Object[]> rows = new ArrayList<>();
+        ticketsByCategory.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> rows.add(new Object[]{entry.getKey(), entry.getValue()}));
+        return rows;
+    }
+    
+    // Order statistics
+    public long getTotalOrders() {
+        long total = 0;
+        for (long count : orderCounts) {
+            total += count;
+        }
+        return total;
+    }
+    
+    public long getOrderCount(Order.OrderStatus status) {
+        return orderCounts[status.ordinal()];
+    }
+    
+    public Map<Order.OrderStatus, Long> getOrderStatusDistribution() {
+        Map<Order.OrderStatus, Long> distribution = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            distribution.put(status, getOrderCount(status));
+        }
+        return distribution;
+    }
+    
+    // Top customers as [name, email, count] rows
+    public List<Object[]> getTopCustomersByTickets() {
+        return topCustomersByTickets;
+    }
+    
+    public void setTopCustomersByTickets(List<Object[]> topCustomersByTickets) {
+        this.topCustomersByTickets = topCustomersByTickets;
+    }
+    
+    public List<Object[]> getTopCustomersByOrders() {
+        return topCustomersByOrders;
+    }
+    
+    public void setTopCustomersByOrders(List<Object[]> topCustomersByOrders) {
+        this.topCustomersByOrders = topCustomersByOrders;
+    }
+    
+    // Flat view used both by the dashboard template and by the live push channel,
+    // so a pushed key always matches the element it updates. Rows are lists so two views compare with equals().
+    public Map<String, Object> toViewModel() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("totalTickets", getTotalTickets());
+        view.put("openTickets", getTicketCount(Ticket.TicketStatus.OPEN));
+        view.put("inProgressTickets", getTicketCount(Ticket.TicketStatus.IN_PROGRESS));
+        view.put("resolvedTickets", getTicketCount(Ticket.TicketStatus.RESOLVED));
+        view.put("closedTickets", getTicketCount(Ticket.TicketStatus.CLOSED));
+        
+        view.put("urgentTickets", getTicketCount(Ticket.Priority.URGENT));
+        view.put("highPriorityTickets", getTicketCount(Ticket.Priority.HIGH));
+        view.put("mediumPriorityTickets", getTicketCount(Ticket.Priority.MEDIUM));
+        view.put("lowPriorityTickets", getTicketCount(Ticket.Priority.LOW));
+        
+        view.put("totalOrders", getTotalOrders());
+        view.put("pendingOrders", getOrderCount(Order.OrderStatus.PENDING));
+        view.put("confirmedOrders", getOrderCount(Order.OrderStatus.CONFIRMED));
+        view.put("preparingOrders", getOrderCount(Order.OrderStatus.PREPARING));
+        view.put("outForDeliveryOrders", getOrderCount(Order.OrderStatus.OUT_FOR_DELIVERY));
+        view.put("deliveredOrders", getOrderCount(Order.OrderStatus.DELIVERED));
+        view.put("cancelledOrders", getOrderCount(Order.OrderStatus.CANCELLED));
+        
+        view.put("ticketsByCategory", toRows(getTicketsByCategory()));
+        view.put("topCustomersByTickets", toRows(topCustomersByTickets));
+        view.put("topCustomersByOrders", toRows(topCustomersByOrders));
+        return view;
+    }
+    
+    private static List<List<Object>> toRows(List<Object[]> rows) {
+        List<List<Object>> result = new ArrayList<>();
+        if (rows != null) {
+            for (Object[] row : rows) {
+                result.add(Arrays.asList(row));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package com.foodorder.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated demand for one menu item over a set of orders (from the order_lines table).
+ */
+public class ItemDemand {
+    
+    private final Long menuItemId;
+    private final String name;
+    private final long quantity;
+    private final long orders;
+    private final BigDecimal revenue;
+    
+    public ItemDemand(Long menuItemId, String name, long quantity, long orders, BigDecimal revenue) {
+        this.menuItemId = menuItemId;
+        this.name = name;
+        this.quantity = quantity;
+        this.orders = orders;
+        this.revenue = revenue;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getQuantity() {
+        return quantity;
+    }
+    
+    public long getOrders() {
+        return orders;
+    }
+    
+    // Null when none of the item's lines carried a menu price
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
@@ -0,0 +1,69 @@
+package com.foodorder.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque position in a list ordered by (timestamp, id), or by (rank, timestamp, id) for lists
+ * sorted on a rank column first. Encoded as a URL-safe string so it can be passed around as a
+ * request parameter.
+ */
+public class KeysetCursor {
+    
+    private static final String SEPARATOR = "_";
+    
+    private final Integer rank;
+    private final LocalDateTime timestamp;
+    private final Long id;
+    
+    public KeysetCursor(LocalDateTime timestamp, Long id) {
+        this(null, timestamp, id);
+    }
+    
+    public KeysetCursor(Integer rank, LocalDateTime timestamp, Long id) {
+        this.rank = rank;
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+    
+    // Encode cursor as URL-safe token
+    public String encode() {
+        String raw = (rank != null ? rank + SEPARATOR : "") + timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Decode token, returns null for blank or malformed input so callers fall back to the first page
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            if (parts.length == 2) {
+                return new KeysetCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            }
+            if (parts.length == 3) {
+                return new KeysetCursor(Integer.valueOf(parts[0]), LocalDateTime.parse(parts[1]),
+                                        Long.valueOf(parts[2]));
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+    
+    // Null for (timestamp, id) cursors
+    public Integer getRank() {
+        return rank;
+    }
+    
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+}
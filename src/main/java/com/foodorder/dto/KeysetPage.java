@@ -0,0 +1,50 @@
+package com.foodorder.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list with cursors for the neighbouring pages.
+ * A null cursor means there is no page in that direction.
+ */
+public class KeysetPage<T> {
+    
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+    private final String previousCursor;
+    
+    public KeysetPage(List<T> content, int size, String nextCursor, String previousCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+    
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+    
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
@@ -0,0 +1,58 @@
+package com.foodorder.dto;
+
+import com.foodorder.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Order volume of one time bucket (or of a whole range): order count, revenue per currency
+ * and the number of orders in each status. Cancelled orders are counted but earn no revenue.
+ */
+public class OrderRollupBucket {
+    
+    private final LocalDateTime bucketStart;
+    private long orderCount;
+    private final Map<String, BigDecimal> revenueByCurrency = new TreeMap<>();
+    private final Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+    
+    public OrderRollupBucket(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            ordersByStatus.put(status.name(), 0L);
+        }
+    }
+    
+    public void add(String currency, Order.OrderStatus status, long count, BigDecimal revenue) {
+        orderCount += count;
+        ordersByStatus.merge(status.name(), count, Long::sum);
+        if (status != Order.OrderStatus.CANCELLED) {
+            revenueByCurrency.merge(currency, revenue, BigDecimal::add);
+        }
+    }
+    
+    public void merge(OrderRollupBucket other) {
+        orderCount += other.orderCount;
+        other.ordersByStatus.forEach((status, count) -> ordersByStatus.merge(status, count, Long::sum));
+        other.revenueByCurrency.forEach((currency, revenue) -> revenueByCurrency.merge(currency, revenue, BigDecimal::add));
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public long getOrderCount() {
+        return orderCount;
+    }
+    
+    public Map<String, BigDecimal> getRevenueByCurrency() {
+        return revenueByCurrency;
+    }
+    
+    public Map<String, Long> getOrdersByStatus() {
+        return ordersByStatus;
+    }
+}
@@ -0,0 +1,57 @@
+package com.foodorder.dto;
+
+import com.foodorder.entity.Order;
+
+import java.math.BigDecimal;
+
+/**
+ * Lightweight order summary returned by the type-ahead order lookup.
+ */
+public class OrderSuggestion {
+    
+    private final Long id;
+    private final String customerName;
+    private final String customerEmail;
+    private final String customerPhone;
+    private final String currency;
+    private final BigDecimal totalAmount;
+    
+    public OrderSuggestion(Order order) {
+        this(order.getId(), order.getCustomerName(), order.getCustomerEmail(), order.getCustomerPhone(),
+                order.getCurrency(), order.getTotalAmount());
+    }
+    
+    public OrderSuggestion(Long id, String customerName, String customerEmail, String customerPhone,
+                           String currency, BigDecimal totalAmount) {
+        this.id = id;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.customerPhone = customerPhone;
+        this.currency = currency;
+        this.totalAmount = totalAmount;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+    
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
@@ -0,0 +1,67 @@
+package com.foodorder.dto;
+
+/**
+ * Count and P50/P90/P99 of one SLA latency (seconds), read from a latency sketch.
+ * Percentiles are null when nothing was recorded.
+ */
+public class SlaPercentiles {
+    
+    private final long count;
+    private final Long p50;
+    private final Long p90;
+    private final Long p99;
+    
+    public SlaPercentiles(long count, Long p50, Long p90, Long p99) {
+        this.count = count;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public Long getP50() {
+        return p50;
+    }
+    
+    public Long getP90() {
+        return p90;
+    }
+    
+    public Long getP99() {
+        return p99;
+    }
+    
+    public String getP50Text() {
+        return format(p50);
+    }
+    
+    public String getP90Text() {
+        return format(p90);
+    }
+    
+    public String getP99Text() {
+        return format(p99);
+    }
+    
+    // Compact duration for the dashboard, e.g. "45s", "12m", "3h 20m", "2d 4h"
+    private static String format(Long seconds) {
+        if (seconds == null) {
+            return "-";
+        }
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        long minutes = seconds / 60;
+        if (minutes < 60) {
+            return minutes + "m";
+        }
+        long hours = minutes / 60;
+        if (hours < 24) {
+            return hours + "h " + (minutes % 60) + "m";
+        }
+        return (hours / 24) + "d " + (hours % 24) + "h";
+    }
+}
@@ -0,0 +1,38 @@
+package com.foodorder.dto;
+
+/**
+ * SLA latencies of one ticket segment: all tickets, one priority or one category.
+ */
+public class SlaRow {
+    
+    private final String dimension;
+    private final String value;
+    private final SlaPercentiles firstResponse;
+    private final SlaPercentiles resolution;
+    
+    public SlaRow(String dimension, String value, SlaPercentiles firstResponse, SlaPercentiles resolution) {
+        this.dimension = dimension;
+        this.value = value;
+        this.firstResponse = firstResponse;
+        this.resolution = resolution;
+    }
+    
+    // "all", "priority" or "category"
+    public String getDimension() {
+        return dimension;
+    }
+    
+    public String getValue() {
+        return value;
+    }
+    
+    // Ticket creation to the first reply from someone other than the customer
+    public SlaPercentiles getFirstResponse() {
+        return firstResponse;
+    }
+    
+    // Ticket creation to resolution
+    public SlaPercentiles getResolution() {
+        return resolution;
+    }
+}
@@ -0,0 +1,61 @@
+package com.foodorder.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.math.BigDecimal;
+
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "menu_items", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_menu_items_name", columnNames = "name")
+})
+public class MenuItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_items_seq")
+    @SequenceGenerator(name = "menu_items_seq", sequenceName = "menu_items_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "name", nullable = false)
+    private String name;
+    
+    // Current menu price; null for items that were typed into an order but are not priced on the menu
+    @Column(name = "price", precision = 10, scale = 2)
+    private BigDecimal price;
+    
+    // Constructors
+    public MenuItem() {
+    }
+    
+    public MenuItem(String name, BigDecimal price) {
+        this.name = name;
+        this.price = price;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
@@ -1,19 +1,33 @@
 package com.foodorder.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "orders")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@BatchSize(size = 50)
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_order_date_id", columnList = "order_date, id"),
+    @Index(name = "idx_orders_status", columnList = "status")
+})
 public class Order {
     
+    // Pooled sequence (50 ids per round trip) instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Customer name is required")
@@ -32,10 +46,22 @@ public class Order {
     @Column(name = "delivery_address", nullable = false, length = 500)
     private String deliveryAddress;
     
+    // Display text of the order lines ("2x Chicken Kottu Roti", one per line); rewritten by setLines
     @NotBlank(message = "Food items are required")
     @Column(name = "food_items", nullable = false, length = 1000)
     private String foodItems;
     
+    // Structured lines behind foodItems, kept in order_lines for item-level aggregates.
+    // Built by OrderService from the text, so forms and the bulk API keep working with foodItems.
+    @JsonIgnore
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "order_lines", joinColumns = @JoinColumn(name = "order_id"), indexes = {
+        @Index(name = "idx_order_lines_menu_item", columnList = "menu_item_id, quantity")
+    })
+    @OrderColumn(name = "line_no")
+    @BatchSize(size = 50)
+    private List<OrderLine> lines = new ArrayList<>();
+    
     @NotNull(message = "Total amount is required")
     @Positive(message = "Total amount must be positive")
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
@@ -122,6 +148,16 @@ public class Order {
         this.foodItems = foodItems;
     }
     
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+    
+    // Replace the lines and derive the food items text from them
+    public void setLines(List<OrderLine> lines) {
+        this.lines = lines;
+        this.foodItems = lines.stream().map(OrderLine::describe).collect(Collectors.joining("\n"));
+    }
+    
     public BigDecimal getTotalAmount() {
         return totalAmount;
     }
@@ -0,0 +1,60 @@
+package com.foodorder.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+// One line of an order: which menu item, how many, and the unit price at the time of ordering
+@Embeddable
+public class OrderLine {
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "menu_item_id", nullable = false)
+    private MenuItem menuItem;
+    
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+    
+    // Null when the item had no menu price at the time; such lines add nothing to revenue sums
+    @Column(name = "unit_price", precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+    
+    // Constructors
+    public OrderLine() {
+    }
+    
+    public OrderLine(MenuItem menuItem, int quantity, BigDecimal unitPrice) {
+        this.menuItem = menuItem;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+    
+    // Text form used for Order.foodItems, e.g. "2x Chicken Kottu Roti"
+    public String describe() {
+        return quantity + "x " + menuItem.getName();
+    }
+    
+    // Getters and Setters
+    public MenuItem getMenuItem() {
+        return menuItem;
+    }
+    
+    public void setMenuItem(MenuItem menuItem) {
+        this.menuItem = menuItem;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+}
@@ -0,0 +1,132 @@
+package com.foodorder.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Order count and total amount of one time bucket (hour or day), per currency and status.
+// Maintained incrementally by OrderRollupService; the unique key is also the range-scan index.
+@Entity
+@Table(name = "order_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_order_rollups_bucket",
+                      columnNames = {"granularity", "bucket_start", "currency", "status"})
+})
+public class OrderRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_rollups_seq")
+    @SequenceGenerator(name = "order_rollups_seq", sequenceName = "order_rollups_seq", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private Granularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "currency", nullable = false)
+    private String currency;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Order.OrderStatus status;
+    
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+    
+    @Column(name = "revenue", nullable = false, precision = 16, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    
+    // Constructors
+    public OrderRollup() {
+    }
+    
+    public OrderRollup(Granularity granularity, LocalDateTime bucketStart, String currency,
+                       Order.OrderStatus status, long orderCount, BigDecimal revenue) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.currency = currency;
+        this.status = status;
+        this.orderCount = orderCount;
+        this.revenue = revenue;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+    
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+    
+    public long getOrderCount() {
+        return orderCount;
+    }
+    
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+        
+        private final ChronoUnit unit;
+        
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+        
+        // Start of the bucket containing the given time
+        public LocalDateTime truncate(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+        
+        public LocalDateTime next(LocalDateTime bucketStart) {
+            return bucketStart.plus(1, unit);
+        }
+    }
+}
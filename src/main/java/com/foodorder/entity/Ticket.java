@@ -1,17 +1,32 @@
 package com.foodorder.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "tickets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = Ticket.GRAPH_DETAIL,
+    attributeNodes = {@NamedAttributeNode("order"), @NamedAttributeNode("replies")})
+@Table(name = "tickets", indexes = {
+    @Index(name = "idx_tickets_status_priority_created", columnList = "status, priority, created_date"),
+    @Index(name = "idx_tickets_priority_rank_created", columnList = "priority_rank, created_date, id"),
+    @Index(name = "idx_tickets_created_date", columnList = "created_date")
+})
 public class Ticket {
     
+    // Fetch profile for the detail page: order summary and replies
+    public static final String GRAPH_DETAIL = "Ticket.detail";
+    
+    // Pooled sequence so bulk inserts can be batched (IDENTITY disables JDBC batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -27,6 +42,11 @@ public class Ticket {
     @Column(name = "priority", nullable = false)
     private Priority priority;
     
+    // Priority.ordinal() (URGENT highest), kept in step with priority so "most urgent first" is a
+    // plain descending sort that idx_tickets_priority_rank_created can serve
+    @Column(name = "priority_rank", nullable = false)
+    private int priorityRank;
+    
     @NotBlank(message = "Category is required")
     @Column(name = "category", nullable = false)
     private String category;
@@ -60,7 +80,13 @@ public class Ticket {
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
     
+    // Read-only view of the foreign key so list pages can link to the order without loading it
+    @Column(name = "order_id", insertable = false, updatable = false)
+    private Long orderId;
+    
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("createdDate ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<TicketReply> replies;
     
     // Constructors
@@ -74,7 +100,7 @@ public class Ticket {
         this();
         this.title = title;
         this.description = description;
-        this.priority = priority;
+        setPriority(priority);
         this.category = category;
         this.customerName = customerName;
         this.customerEmail = customerEmail;
@@ -113,6 +139,11 @@ public class Ticket {
     
     public void setPriority(Priority priority) {
         this.priority = priority;
+        this.priorityRank = priority == null ? 0 : priority.ordinal();
+    }
+    
+    public int getPriorityRank() {
+        return priorityRank;
     }
     
     public String getCategory() {
@@ -191,6 +222,13 @@ public class Ticket {
         this.order = order;
     }
     
+    public Long getOrderId() {
+        if (orderId == null && order != null) {
+            return order.getId();
+        }
+        return orderId;
+    }
+    
     public List<TicketReply> getReplies() {
         return replies;
     }
@@ -203,6 +241,7 @@ public class Ticket {
         return status != TicketStatus.IN_PROGRESS && status != TicketStatus.RESOLVED;
     }
     
+    // Declared from least to most urgent; the order is stored in priority_rank
     public enum Priority {
         LOW, MEDIUM, HIGH, URGENT
     }
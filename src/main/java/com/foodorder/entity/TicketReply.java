@@ -1,15 +1,21 @@
 package com.foodorder.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "ticket_replies")
 public class TicketReply {
     
+    // Pooled sequence so bulk inserts can be batched (IDENTITY disables JDBC batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_replies_seq")
+    @SequenceGenerator(name = "ticket_replies_seq", sequenceName = "ticket_replies_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Reply message is required")
@@ -31,6 +37,10 @@ public class TicketReply {
     @JoinColumn(name = "ticket_id", nullable = false)
     private Ticket ticket;
     
+    // Read-only view of the foreign key so exports and lists don't need the ticket
+    @Column(name = "ticket_id", insertable = false, updatable = false)
+    private Long ticketId;
+    
     // Constructors
     public TicketReply() {
         this.createdDate = LocalDateTime.now();
@@ -92,4 +102,11 @@ public class TicketReply {
     public void setTicket(Ticket ticket) {
         this.ticket = ticket;
     }
+    
+    public Long getTicketId() {
+        if (ticketId == null && ticket != null) {
+            return ticket.getId();
+        }
+        return ticketId;
+    }
 }
@@ -0,0 +1,14 @@
+package com.foodorder.repository;
+
+import com.foodorder.entity.MenuItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    
+    // Find a menu item by name (case-insensitive); the oldest wins if spellings differ only in case
+    Optional<MenuItem> findFirstByNameIgnoreCaseOrderByIdAsc(String name);
+}
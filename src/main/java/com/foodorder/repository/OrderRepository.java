@@ -1,13 +1,20 @@
 package com.foodorder.repository;
 
 import com.foodorder.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -19,6 +26,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerEmailIgnoreCase(String customerEmail);
     
     // Find orders by status
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Order> findByStatus(Order.OrderStatus status);
     
     // Find orders by date range
@@ -40,16 +48,198 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                             @Param("startDate") LocalDateTime startDate,
                             @Param("endDate") LocalDateTime endDate);
     
+    // First keyset page (newest first). Kept apart from the next-page query so neither carries an
+    // optional cursor predicate that stops the planner from using the (order_date, id) index range.
+    @Query("SELECT o FROM Order o WHERE " +
+           "(:customerName IS NULL OR LOWER(o.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:customerEmail IS NULL OR LOWER(o.customerEmail) LIKE LOWER(CONCAT('%', :customerEmail, '%'))) AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> searchOrdersFirst(@Param("customerName") String customerName,
+                                  @Param("customerEmail") String customerEmail,
+                                  @Param("status") Order.OrderStatus status,
+                                  @Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate,
+                                  Pageable pageable);
+    
+    // Keyset page of orders older than the cursor (newest first)
+    @Query("SELECT o FROM Order o WHERE " +
+           "(:customerName IS NULL OR LOWER(o.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:customerEmail IS NULL OR LOWER(o.customerEmail) LIKE LOWER(CONCAT('%', :customerEmail, '%'))) AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) AND " +
+           "(o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> searchOrdersAfter(@Param("customerName") String customerName,
+                                  @Param("customerEmail") String customerEmail,
+                                  @Param("status") Order.OrderStatus status,
+                                  @Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate,
+                                  @Param("cursorDate") LocalDateTime cursorDate,
+                                  @Param("cursorId") Long cursorId,
+                                  Pageable pageable);
+    
+    // Keyset page of orders newer than the cursor, returned oldest first (caller reverses)
+    @Query("SELECT o FROM Order o WHERE " +
+           "(:customerName IS NULL OR LOWER(o.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:customerEmail IS NULL OR LOWER(o.customerEmail) LIKE LOWER(CONCAT('%', :customerEmail, '%'))) AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) AND " +
+           "(o.orderDate > :cursorDate OR (o.orderDate = :cursorDate AND o.id > :cursorId)) " +
+           "ORDER BY o.orderDate ASC, o.id ASC")
+    List<Order> searchOrdersBefore(@Param("customerName") String customerName,
+                                   @Param("customerEmail") String customerEmail,
+                                   @Param("status") Order.OrderStatus status,
+                                   @Param("startDate") LocalDateTime startDate,
+                                   @Param("endDate") LocalDateTime endDate,
+                                   @Param("cursorDate") LocalDateTime cursorDate,
+                                   @Param("cursorId") Long cursorId,
+                                   Pageable pageable);
+    
+    // Keyset pages restricted to candidate ids from OrderTrigramIndex (customer filters already applied)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> searchOrdersFirstInIds(@Param("ids") List<Long> ids,
+                                       @Param("status") Order.OrderStatus status,
+                                       @Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) AND " +
+           "(o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> searchOrdersAfterInIds(@Param("ids") List<Long> ids,
+                                       @Param("status") Order.OrderStatus status,
+                                       @Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       @Param("cursorDate") LocalDateTime cursorDate,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) AND " +
+           "(o.orderDate > :cursorDate OR (o.orderDate = :cursorDate AND o.id > :cursorId)) " +
+           "ORDER BY o.orderDate ASC, o.id ASC")
+    List<Order> searchOrdersBeforeInIds(@Param("ids") List<Long> ids,
+                                        @Param("status") Order.OrderStatus status,
+                                        @Param("startDate") LocalDateTime startDate,
+                                        @Param("endDate") LocalDateTime endDate,
+                                        @Param("cursorDate") LocalDateTime cursorDate,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+    
+    // Search restricted to candidate ids from OrderTrigramIndex (customer filters already applied)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate)")
+    List<Order> searchOrdersInIds(@Param("ids") List<Long> ids,
+                                  @Param("status") Order.OrderStatus status,
+                                  @Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate);
+    
+    // Lock the rows of a bulk transition that are still in the expected status
+    @Query(value = "SELECT id FROM orders WHERE id IN (:ids) AND status = :expected FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsInStatus(@Param("ids") List<Long> ids, @Param("expected") String expected);
+    
+    // Set-based status transition, conditional on the current status
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target WHERE o.id IN :ids AND o.status = :expected")
+    int transitionStatus(@Param("ids") List<Long> ids,
+                         @Param("expected") Order.OrderStatus expected,
+                         @Param("target") Order.OrderStatus target);
+    
+    // Batched scan of id, customer name and email in id order (rebuilds the trigram index without loading entities)
+    @Query("SELECT o.id, o.customerName, o.customerEmail FROM Order o WHERE o.id > :lastId ORDER BY o.id")
+    List<Object[]> findCustomerFieldsAfter(@Param("lastId") Long lastId, Pageable pageable);
+    
+    // Batched scan of the order lookup fields in id order (rebuilds OrderLookupIndex without loading entities)
+    @Query("SELECT o.id, o.customerName, o.customerEmail, o.customerPhone, o.currency, o.totalAmount " +
+           "FROM Order o WHERE o.id > :lastId ORDER BY o.id")
+    List<Object[]> findSuggestionFieldsAfter(@Param("lastId") Long lastId, Pageable pageable);
+    
+    // Forward-only stream of orders for export (same criteria as searchOrders); caller must be in a transaction
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false"),
+        // Exported rows are read once; keep them out of the second-level cache (see ExportService)
+        @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("SELECT o FROM Order o WHERE " +
+           "(:customerName IS NULL OR LOWER(o.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:customerEmail IS NULL OR LOWER(o.customerEmail) LIKE LOWER(CONCAT('%', :customerEmail, '%'))) AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) " +
+           "ORDER BY o.id")
+    Stream<Order> streamOrders(@Param("customerName") String customerName,
+                               @Param("customerEmail") String customerEmail,
+                               @Param("status") Order.OrderStatus status,
+                               @Param("startDate") LocalDateTime startDate,
+                               @Param("endDate") LocalDateTime endDate);
+    
     // Count orders by status
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     long countByStatus(Order.OrderStatus status);
     
+    // Count orders grouped by status in one pass (dashboard)
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countOrdersGroupedByStatus();
+    
     // Find recent orders (last 30 days)
     @Query("SELECT o FROM Order o WHERE o.orderDate >= :thirtyDaysAgo ORDER BY o.orderDate DESC")
     List<Order> findRecentOrders(@Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
     
-    // Find top customers by order count
+    // Find top customers by order count, limited in the database
     @Query("SELECT o.customerName, o.customerEmail, COUNT(o) as orderCount " +
            "FROM Order o GROUP BY o.customerName, o.customerEmail " +
            "ORDER BY COUNT(o) DESC")
-    List<Object[]> findTopCustomersByOrderCount();
+    List<Object[]> findTopCustomersByOrderCount(Pageable pageable);
+    
+    // Item demand from order_lines: quantity, distinct orders and revenue per menu item, busiest first.
+    // Lines without a unit price (items not priced on the menu) count in quantity but not in revenue.
+    @Query("SELECT m.id, m.name, SUM(l.quantity), COUNT(DISTINCT o.id), SUM(l.quantity * l.unitPrice) " +
+           "FROM Order o JOIN o.lines l JOIN l.menuItem m WHERE o.status IN :statuses AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate) " +
+           "GROUP BY m.id, m.name ORDER BY SUM(l.quantity) DESC")
+    List<Object[]> sumItemDemand(@Param("statuses") Collection<Order.OrderStatus> statuses,
+                                 @Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate,
+                                 Pageable pageable);
+    
+    // Orders, lines and items in one pass, for items-per-order averages
+    @Query("SELECT COUNT(DISTINCT o.id), COUNT(l), SUM(l.quantity) " +
+           "FROM Order o JOIN o.lines l WHERE o.status IN :statuses AND " +
+           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
+           "(:endDate IS NULL OR o.orderDate <= :endDate)")
+    List<Object[]> sumOrderLines(@Param("statuses") Collection<Order.OrderStatus> statuses,
+                                 @Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate);
+    
+    // Order count and total amount per hour, currency and status (rebuilds the rollup tables)
+    @Query("SELECT year(o.orderDate), month(o.orderDate), day(o.orderDate), hour(o.orderDate), " +
+           "o.currency, o.status, COUNT(o), SUM(o.totalAmount) FROM Order o " +
+           "GROUP BY year(o.orderDate), month(o.orderDate), day(o.orderDate), hour(o.orderDate), " +
+           "o.currency, o.status")
+    List<Object[]> sumByHourCurrencyAndStatus();
+    
+    // Order count and total amount per hour and currency of the given orders (bulk status transitions)
+    @Query("SELECT year(o.orderDate), month(o.orderDate), day(o.orderDate), hour(o.orderDate), " +
+           "o.currency, COUNT(o), SUM(o.totalAmount) FROM Order o WHERE o.id IN :ids " +
+           "GROUP BY year(o.orderDate), month(o.orderDate), day(o.orderDate), hour(o.orderDate), o.currency")
+    List<Object[]> sumByHourAndCurrencyInIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,36 @@
+package com.foodorder.repository;
+
+import com.foodorder.entity.Order;
+import com.foodorder.entity.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+    
+    // Buckets starting in [from, to), oldest first
+    @Query("SELECT r FROM OrderRollup r WHERE r.granularity = :granularity AND " +
+           "r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<OrderRollup> findBuckets(@Param("granularity") OrderRollup.Granularity granularity,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+    
+    // Apply a delta to an existing bucket row; returns 0 when the row doesn't exist yet
+    @Modifying
+    @Query("UPDATE OrderRollup r SET r.orderCount = r.orderCount + :count, r.revenue = r.revenue + :revenue " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND " +
+           "r.currency = :currency AND r.status = :status")
+    int addToBucket(@Param("granularity") OrderRollup.Granularity granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("currency") String currency,
+                    @Param("status") Order.OrderStatus status,
+                    @Param("count") long count,
+                    @Param("revenue") BigDecimal revenue);
+}
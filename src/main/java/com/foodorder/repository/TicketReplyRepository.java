@@ -1,13 +1,18 @@
 package com.foodorder.repository;
 
 import com.foodorder.entity.TicketReply;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TicketReplyRepository extends JpaRepository<TicketReply, Long> {
@@ -31,4 +36,45 @@ public interface TicketReplyRepository extends JpaRepository<TicketReply, Long>
     @Query("SELECT tr FROM TicketReply tr WHERE tr.ticket.id = :ticketId " +
            "ORDER BY tr.createdDate DESC")
     List<TicketReply> findRecentRepliesByTicketId(@Param("ticketId") Long ticketId);
+    
+    // Forward-only stream of replies for export; caller must be in a transaction
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false"),
+        // Exported rows are read once; keep them out of the second-level cache (see ExportService)
+        @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("SELECT tr FROM TicketReply tr WHERE " +
+           "(:ticketId IS NULL OR tr.ticketId = :ticketId) AND " +
+           "(:startDate IS NULL OR tr.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR tr.createdDate <= :endDate) " +
+           "ORDER BY tr.id")
+    Stream<TicketReply> streamReplies(@Param("ticketId") Long ticketId,
+                                      @Param("startDate") LocalDateTime startDate,
+                                      @Param("endDate") LocalDateTime endDate);
+    
+    // Batched scan in id order
+    List<TicketReply> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Batched scan of id, ticket id and message in id order (rebuilds the search index without loading entities)
+    @Query("SELECT tr.id, tr.ticketId, tr.message FROM TicketReply tr WHERE tr.id > :lastId ORDER BY tr.id")
+    List<Object[]> findSearchFieldsAfter(@Param("lastId") Long lastId, Pageable pageable);
+    
+    // Replies on a ticket from anyone other than its customer (0 until staff first responds)
+    @Query("SELECT COUNT(tr) FROM TicketReply tr WHERE tr.ticketId = :ticketId AND " +
+           "LOWER(tr.authorEmail) <> LOWER(:customerEmail)")
+    long countStaffReplies(@Param("ticketId") Long ticketId, @Param("customerEmail") String customerEmail);
+    
+    // Category, priority, creation time and first staff reply time per ticket, for first replies
+    // since the given time (SLA rebuild)
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.category, t.priority, t.createdDate, MIN(tr.createdDate) FROM TicketReply tr JOIN tr.ticket t " +
+           "WHERE LOWER(tr.authorEmail) <> LOWER(t.customerEmail) " +
+           "GROUP BY t.id, t.category, t.priority, t.createdDate " +
+           "HAVING MIN(tr.createdDate) >= :since")
+    Stream<Object[]> streamFirstResponseTimes(@Param("since") LocalDateTime since);
 }
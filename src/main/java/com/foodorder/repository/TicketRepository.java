@@ -1,21 +1,36 @@
 package com.foodorder.repository;
 
 import com.foodorder.entity.Ticket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
     
+    // Ticket detail page: ticket, order summary and replies in a single query
+    @EntityGraph(Ticket.GRAPH_DETAIL)
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id")
+    Optional<Ticket> findDetailById(@Param("id") Long id);
+    
     // Find tickets by status
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Ticket> findByStatus(Ticket.TicketStatus status);
     
     // Find tickets by priority
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Ticket> findByPriority(Ticket.Priority priority);
     
     // Find tickets by category
@@ -49,21 +64,225 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
                               @Param("startDate") LocalDateTime startDate,
                               @Param("endDate") LocalDateTime endDate);
     
+    // First keyset page of tickets matching the search criteria; ordering comes from the Pageable sort
+    // (created date or priority rank, then id), no count query is run
+    @Query("SELECT t FROM Ticket t WHERE " +
+           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND " +
+           "(:customerName IS NULL OR LOWER(t.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:category IS NULL OR LOWER(t.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:startDate IS NULL OR t.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdDate <= :endDate)")
+    List<Ticket> searchTicketsFirst(@Param("title") String title,
+                                    @Param("description") String description,
+                                    @Param("customerName") String customerName,
+                                    @Param("category") String category,
+                                    @Param("status") Ticket.TicketStatus status,
+                                    @Param("priority") Ticket.Priority priority,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate,
+                                    Pageable pageable);
+    
+    // Keyset page of tickets created before the cursor, newest first
+    @Query("SELECT t FROM Ticket t WHERE " +
+           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND " +
+           "(:customerName IS NULL OR LOWER(t.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:category IS NULL OR LOWER(t.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:startDate IS NULL OR t.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdDate <= :endDate) AND " +
+           "(t.createdDate < :cursorDate OR (t.createdDate = :cursorDate AND t.id < :cursorId)) " +
+           "ORDER BY t.createdDate DESC, t.id DESC")
+    List<Ticket> searchTicketsOlder(@Param("title") String title,
+                                    @Param("description") String description,
+                                    @Param("customerName") String customerName,
+                                    @Param("category") String category,
+                                    @Param("status") Ticket.TicketStatus status,
+                                    @Param("priority") Ticket.Priority priority,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate,
+                                    @Param("cursorDate") LocalDateTime cursorDate,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+    
+    // Keyset page of tickets created after the cursor, oldest first
+    @Query("SELECT t FROM Ticket t WHERE " +
+           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND " +
+           "(:customerName IS NULL OR LOWER(t.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:category IS NULL OR LOWER(t.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:startDate IS NULL OR t.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdDate <= :endDate) AND " +
+           "(t.createdDate > :cursorDate OR (t.createdDate = :cursorDate AND t.id > :cursorId)) " +
+           "ORDER BY t.createdDate ASC, t.id ASC")
+    List<Ticket> searchTicketsNewer(@Param("title") String title,
+                                    @Param("description") String description,
+                                    @Param("customerName") String customerName,
+                                    @Param("category") String category,
+                                    @Param("status") Ticket.TicketStatus status,
+                                    @Param("priority") Ticket.Priority priority,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate,
+                                    @Param("cursorDate") LocalDateTime cursorDate,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+    
+    // Keyset page of tickets after the cursor in "most urgent first, then newest" order
+    @Query("SELECT t FROM Ticket t WHERE " +
+           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND " +
+           "(:customerName IS NULL OR LOWER(t.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:category IS NULL OR LOWER(t.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:startDate IS NULL OR t.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdDate <= :endDate) AND " +
+           "(t.priorityRank < :cursorRank OR (t.priorityRank = :cursorRank AND " +
+           "(t.createdDate < :cursorDate OR (t.createdDate = :cursorDate AND t.id < :cursorId)))) " +
+           "ORDER BY t.priorityRank DESC, t.createdDate DESC, t.id DESC")
+    List<Ticket> searchTicketsAfterByPriority(@Param("title") String title,
+                                              @Param("description") String description,
+                                              @Param("customerName") String customerName,
+                                              @Param("category") String category,
+                                              @Param("status") Ticket.TicketStatus status,
+                                              @Param("priority") Ticket.Priority priority,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate,
+                                              @Param("cursorRank") int cursorRank,
+                                              @Param("cursorDate") LocalDateTime cursorDate,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+    
+    // Keyset page of tickets before the cursor in that order, returned in reverse (caller reverses)
+    @Query("SELECT t FROM Ticket t WHERE " +
+           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND " +
+           "(:customerName IS NULL OR LOWER(t.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:category IS NULL OR LOWER(t.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:startDate IS NULL OR t.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdDate <= :endDate) AND " +
+           "(t.priorityRank > :cursorRank OR (t.priorityRank = :cursorRank AND " +
+           "(t.createdDate > :cursorDate OR (t.createdDate = :cursorDate AND t.id > :cursorId)))) " +
+           "ORDER BY t.priorityRank ASC, t.createdDate ASC, t.id ASC")
+    List<Ticket> searchTicketsBeforeByPriority(@Param("title") String title,
+                                               @Param("description") String description,
+                                               @Param("customerName") String customerName,
+                                               @Param("category") String category,
+                                               @Param("status") Ticket.TicketStatus status,
+                                               @Param("priority") Ticket.Priority priority,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate,
+                                               @Param("cursorRank") int cursorRank,
+                                               @Param("cursorDate") LocalDateTime cursorDate,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+    
+    // Forward-only stream of tickets for export (same criteria as searchTickets); caller must be in a transaction
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false"),
+        // Exported rows are read once; keep them out of the second-level cache (see ExportService)
+        @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("SELECT t FROM Ticket t WHERE " +
+           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND " +
+           "(:customerName IS NULL OR LOWER(t.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:category IS NULL OR LOWER(t.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:startDate IS NULL OR t.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdDate <= :endDate) " +
+           "ORDER BY t.id")
+    Stream<Ticket> streamTickets(@Param("title") String title,
+                                 @Param("description") String description,
+                                 @Param("customerName") String customerName,
+                                 @Param("category") String category,
+                                 @Param("status") Ticket.TicketStatus status,
+                                 @Param("priority") Ticket.Priority priority,
+                                 @Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate);
+    
+    // Narrow full-text hits (ids from TicketSearchIndex) with the remaining search criteria
+    @Query("SELECT t FROM Ticket t WHERE t.id IN :ids AND " +
+           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:description IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%'))) AND " +
+           "(:customerName IS NULL OR LOWER(t.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
+           "(:category IS NULL OR LOWER(t.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:startDate IS NULL OR t.createdDate >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdDate <= :endDate)")
+    List<Ticket> searchTicketsInIds(@Param("ids") List<Long> ids,
+                                    @Param("title") String title,
+                                    @Param("description") String description,
+                                    @Param("customerName") String customerName,
+                                    @Param("category") String category,
+                                    @Param("status") Ticket.TicketStatus status,
+                                    @Param("priority") Ticket.Priority priority,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate);
+    
+    // Lock the rows of a bulk transition that are still in the expected status
+    @Query(value = "SELECT id FROM tickets WHERE id IN (:ids) AND status = :expected FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsInStatus(@Param("ids") List<Long> ids, @Param("expected") String expected);
+    
+    // Set-based status transition, conditional on the current status (same dates as Ticket.setStatus)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = :target, t.updatedDate = :now " +
+           "WHERE t.id IN :ids AND t.status = :expected")
+    int transitionStatus(@Param("ids") List<Long> ids,
+                         @Param("expected") Ticket.TicketStatus expected,
+                         @Param("target") Ticket.TicketStatus target,
+                         @Param("now") LocalDateTime now);
+    
+    // As transitionStatus, for transitions into RESOLVED which also stamp resolvedDate
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = :target, t.updatedDate = :now, t.resolvedDate = :now " +
+           "WHERE t.id IN :ids AND t.status = :expected")
+    int transitionStatusResolving(@Param("ids") List<Long> ids,
+                                  @Param("expected") Ticket.TicketStatus expected,
+                                  @Param("target") Ticket.TicketStatus target,
+                                  @Param("now") LocalDateTime now);
+    
+    // Batched scan of id, title and description in id order (rebuilds the search index without loading entities)
+    @Query("SELECT t.id, t.title, t.description FROM Ticket t WHERE t.id > :lastId ORDER BY t.id")
+    List<Object[]> findSearchFieldsAfter(@Param("lastId") Long lastId, Pageable pageable);
+    
+    // Agent queue (e.g. open urgent tickets), served directly by idx_tickets_status_priority_created
+    List<Ticket> findByStatusAndPriority(Ticket.TicketStatus status, Ticket.Priority priority, Pageable pageable);
+    
     // Count tickets by status
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     long countByStatus(Ticket.TicketStatus status);
     
     // Count tickets by category
     @Query("SELECT t.category, COUNT(t) FROM Ticket t GROUP BY t.category ORDER BY COUNT(t) DESC")
     List<Object[]> countTicketsByCategory();
     
+    // Count tickets grouped by status, priority and category in one pass (dashboard)
+    @Query("SELECT t.status, t.priority, t.category, COUNT(t) FROM Ticket t " +
+           "GROUP BY t.status, t.priority, t.category")
+    List<Object[]> countTicketsByStatusPriorityAndCategory();
+    
     // Count tickets by priority
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     long countByPriority(Ticket.Priority priority);
     
-    // Find top customers by ticket count
+    // Find top customers by ticket count, limited in the database
     @Query("SELECT t.customerName, t.customerEmail, COUNT(t) as ticketCount " +
            "FROM Ticket t GROUP BY t.customerName, t.customerEmail " +
            "ORDER BY COUNT(t) DESC")
-    List<Object[]> findTopCustomersByTicketCount();
+    List<Object[]> findTopCustomersByTicketCount(Pageable pageable);
     
     // Find recent tickets (last 30 days)
     @Query("SELECT t FROM Ticket t WHERE t.createdDate >= :thirtyDaysAgo ORDER BY t.createdDate DESC")
@@ -75,4 +294,16 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     // Find all distinct categories
     @Query("SELECT DISTINCT t.category FROM Ticket t ORDER BY t.category")
     List<String> findAllCategories();
+    
+    // Category, priority, creation and resolution time of tickets resolved since the given time (SLA rebuild)
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.category, t.priority, t.createdDate, t.resolvedDate FROM Ticket t WHERE t.resolvedDate >= :since")
+    Stream<Object[]> streamResolutionTimes(@Param("since") LocalDateTime since);
+    
+    // Category, priority and creation time of the given tickets that were never resolved (bulk resolve)
+    @Query("SELECT t.category, t.priority, t.createdDate FROM Ticket t WHERE t.id IN :ids AND t.resolvedDate IS NULL")
+    List<Object[]> findUnresolvedSlaFields(@Param("ids") List<Long> ids);
 }
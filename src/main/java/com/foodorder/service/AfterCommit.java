@@ -0,0 +1,28 @@
+package com.foodorder.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs in-memory side effects (counters, indexes) only once the surrounding
+ * transaction commits, so a rollback never leaves them ahead of the database.
+ * Without an active transaction the action runs immediately.
+ */
+final class AfterCommit {
+    
+    private AfterCommit() {
+    }
+    
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.foodorder.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit/miss/put statistics for the Hibernate second-level and query cache regions.
+ */
+@Service
+public class CacheStatisticsService {
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    public Map<String, Object> getCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("queryCachePuts", statistics.getQueryCachePutCount());
+        
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            regionStats.put("hits", region.getHitCount());
+            regionStats.put("misses", region.getMissCount());
+            regionStats.put("puts", region.getPutCount());
+            regionStats.put("elementsInMemory", region.getElementCountInMemory());
+            regionStats.put("sizeInMemory", region.getSizeInMemory());
+            long lookups = region.getHitCount() + region.getMissCount();
+            regionStats.put("hitRatio", lookups == 0 ? 0.0 : (double) region.getHitCount() / lookups);
+            regions.put(regionName, regionStats);
+        }
+        result.put("regions", regions);
+        return result;
+    }
+    
+    public void clearStatistics() {
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+}
@@ -0,0 +1,182 @@
+package com.foodorder.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes dashboard changes to connected browsers over Server-Sent Events.
+ * Services mark the dashboard dirty after a committed write; at most once per push interval the
+ * statistics are recomputed a single time, diffed against the last broadcast, and only the changed
+ * keys are sent to every subscriber. Database load therefore follows the write rate, not the
+ * number of open dashboards. Sends run on a dedicated thread, so a slow client never holds up the
+ * shared scheduler (rollup flushes, reconcilers) that computes the deltas.
+ */
+@Service
+public class DashboardPushService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardPushService.class);
+    
+    private static final long HEARTBEAT_INTERVAL_MS = 15_000;
+    
+    @Autowired
+    private StatisticsService statisticsService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.dashboard.sse-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+    
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    
+    // One thread, so deltas reach each client in the order they were computed
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "dashboard-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Guards lastView/lastSentAt. A ReentrantLock rather than synchronized: the statistics queries run
+    // while it is held, and a virtual thread blocking inside a monitor would pin its carrier thread.
+    private final ReentrantLock viewLock = new ReentrantLock();
+    
+    // Last view sent to subscribers
+    private Map<String, Object> lastView;
+    private long lastSentAt;
+    
+    // Called by services on every write that can move a dashboard number
+    public void markChanged() {
+        AfterCommit.run(() -> dirty.set(true));
+    }
+    
+    // Register a new dashboard connection and send it the current view
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        
+        viewLock.lock();
+        try {
+            if (lastView == null || dirty.get()) {
+                // Nobody has been listening, so pending changes were never computed
+                refresh();
+            }
+            // Snapshot and registration under the lock, so every later delta reaches this client.
+            // The emitter buffers sends made before the handler returns, so this never waits on the client.
+            emitter.send(SseEmitter.event().name("snapshot").data(toJson(lastView), MediaType.APPLICATION_JSON));
+            subscribers.add(emitter);
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        } finally {
+            viewLock.unlock();
+        }
+        return emitter;
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    // Coalescing window: every change since the last tick is folded into one computation
+    @Scheduled(fixedDelayString = "${app.dashboard.push-interval-ms:1000}")
+    public void broadcast() {
+        if (subscribers.isEmpty()) {
+            // Leave the dirty flag set; the next subscriber recomputes on connect
+            return;
+        }
+        String payload = null;
+        String eventName = "delta";
+        viewLock.lock();
+        try {
+            if (dirty.getAndSet(false)) {
+                Map<String, Object> previous = lastView;
+                refresh();
+                Map<String, Object> delta = diff(previous, lastView);
+                if (!delta.isEmpty()) {
+                    payload = toJson(delta);
+                }
+            }
+            long now = System.currentTimeMillis();
+            if (payload == null && now - lastSentAt < HEARTBEAT_INTERVAL_MS) {
+                return;
+            }
+            if (payload == null) {
+                // Keep proxies from closing idle connections and notice clients that went away
+                eventName = "heartbeat";
+                payload = "{}";
+            }
+            lastSentAt = now;
+        } finally {
+            viewLock.unlock();
+        }
+        
+        String name = eventName;
+        String data = payload;
+        sender.execute(() -> send(name, data));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+    
+    // One serialized payload fanned out to every subscriber (builders are single-use)
+    private void send(String eventName, String payload) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+                log.debug("Dropping dashboard subscriber: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void refresh() {
+        dirty.set(false);
+        lastView = statisticsService.getDashboardStatistics().toViewModel();
+    }
+    
+    private Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        if (previous == null) {
+            return current;
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                delta.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return delta;
+    }
+    
+    private String toJson(Map<String, Object> view) {
+        try {
+            return objectMapper.writeValueAsString(view);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize dashboard view", e);
+        }
+    }
+}
@@ -1,20 +1,33 @@
 package com.foodorder.service;
 
+import com.foodorder.entity.MenuItem;
 import com.foodorder.entity.Order;
+import com.foodorder.entity.OrderLine;
 import com.foodorder.entity.Ticket;
 import com.foodorder.entity.TicketReply;
+import com.foodorder.repository.MenuItemRepository;
 import com.foodorder.repository.OrderRepository;
 import com.foodorder.repository.TicketRepository;
 import com.foodorder.repository.TicketReplyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class DataInitializationService implements CommandLineRunner {
@@ -28,6 +41,51 @@ public class DataInitializationService implements CommandLineRunner {
     @Autowired
     private TicketReplyRepository ticketReplyRepository;
     
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Generator mode: replaces the small sample data set with a large, reproducible one
+    @Value("${app.data.generator.enabled:false}")
+    private boolean generatorEnabled;
+    
+    @Value("${app.data.generator.orders:1000000}")
+    private int generatorOrders;
+    
+    @Value("${app.data.generator.customers:50000}")
+    private int generatorCustomers;
+    
+    @Value("${app.data.generator.tickets-per-order:0.2}")
+    private double generatorTicketsPerOrder;
+    
+    @Value("${app.data.generator.max-replies-per-ticket:4}")
+    private int generatorMaxReplies;
+    
+    @Value("${app.data.generator.days:90}")
+    private int generatorDays;
+    
+    @Value("${app.data.generator.seed:42}")
+    private long generatorSeed;
+    
+    @Value("${app.data.generator.threads:0}")
+    private int generatorThreads;
+    
+    @Value("${app.data.generator.batch-size:50}")
+    private int generatorBatchSize;
+    
+    // Orders per unit of parallel work; each partition has its own seeded Random
+    private static final int GENERATOR_PARTITION_SIZE = 10_000;
+    
+    // Relative order volume per hour of day: lunch and dinner peaks
+    private static final int[] HOURLY_ORDER_WEIGHTS = {
+        1, 1, 0, 0, 0, 0, 1, 3, 5, 4, 4, 8, 12, 11, 6, 4, 4, 6, 10, 12, 10, 6, 3, 2
+    };
+    
     private final Random random = new Random();
     
     // Sri Lankan names
@@ -47,6 +105,15 @@ public class DataInitializationService implements CommandLineRunner {
         "Coconut Roti", "Kiribath", "Watalappan", "Curd with Treacle"
     );
     
+    // Menu prices in LKR, in the same order as foodItems
+    private final int[] foodItemPrices = {
+        1200, 950, 250,
+        1100, 450, 550,
+        300, 850, 350, 350,
+        900, 1000, 1150, 250,
+        150, 400, 350, 450
+    };
+    
     private final List<String> ticketCategories = Arrays.asList(
         "Food Quality Issue", "Delivery Problem", "Order Incorrect", 
         "Payment Issue", "Customer Service", "Technical Problem", 
@@ -56,8 +123,10 @@ public class DataInitializationService implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         // Only initialize data if database is empty
-        if (orderRepository.count() == 0) {
-            initializeOrders();
+        if (orderRepository.count() == 0 && generatorEnabled) {
+            generateBulkData(initializeMenu());
+        } else if (orderRepository.count() == 0) {
+            initializeOrders(initializeMenu());
             initializeTickets();
             System.out.println("✅ Database initialized with dummy data!");
         } else {
@@ -65,7 +134,18 @@ public class DataInitializationService implements CommandLineRunner {
         }
     }
     
-    private void initializeOrders() {
+    private List<MenuItem> initializeMenu() {
+        if (menuItemRepository.count() == 0) {
+            List<MenuItem> menu = new ArrayList<>();
+            for (int i = 0; i < foodItems.size(); i++) {
+                menu.add(new MenuItem(foodItems.get(i), BigDecimal.valueOf(foodItemPrices[i])));
+            }
+            menuItemRepository.saveAll(menu);
+        }
+        return menuItemRepository.findAll();
+    }
+    
+    private void initializeOrders(List<MenuItem> menu) {
         System.out.println("🍕 Creating dummy orders...");
         
         for (int i = 0; i < 10; i++) {
@@ -75,16 +155,16 @@ public class DataInitializationService implements CommandLineRunner {
             String customerName = sriLankanNames.get(random.nextInt(sriLankanNames.size()));
             order.setCustomerName(customerName);
             order.setCustomerEmail(generateEmail(customerName));
-            order.setCustomerPhone(generatePhoneNumber());
-            order.setDeliveryAddress(generateAddress());
+            order.setCustomerPhone(generatePhoneNumber(random));
+            order.setDeliveryAddress(generateAddress(random));
             
             // Order information
-            order.setFoodItems(generateFoodItemsList());
-            order.setTotalAmount(generateTotalAmount());
+            order.setLines(generateOrderLines(random, menu));
+            order.setTotalAmount(totalOf(order.getLines()));
             order.setCurrency("LKR");
-            order.setStatus(generateOrderStatus());
-            order.setOrderDate(generateOrderDate());
-            order.setSpecialInstructions(generateSpecialInstructions());
+            order.setStatus(generateOrderStatus(random));
+            order.setOrderDate(generateOrderDate(random));
+            order.setSpecialInstructions(generateSpecialInstructions(random));
             
             orderRepository.save(order);
         }
@@ -107,12 +187,12 @@ public class DataInitializationService implements CommandLineRunner {
             ticket.setCustomerEmail(order.getCustomerEmail());
             ticket.setCustomerPhone(order.getCustomerPhone());
             
-            ticket.setTitle(generateTicketTitle());
-            ticket.setDescription(generateTicketDescription());
-            ticket.setPriority(generateTicketPriority());
+            ticket.setTitle(generateTicketTitle(random));
+            ticket.setDescription(generateTicketDescription(random));
+            ticket.setPriority(generateTicketPriority(random));
             ticket.setCategory(ticketCategories.get(random.nextInt(ticketCategories.size())));
-            ticket.setStatus(generateTicketStatus());
-            ticket.setCreatedDate(generateTicketDate());
+            ticket.setStatus(generateTicketStatus(random));
+            ticket.setCreatedDate(generateTicketDate(random));
             ticket.setUpdatedDate(ticket.getCreatedDate().plusHours(random.nextInt(48)));
             
             if (ticket.getStatus() == Ticket.TicketStatus.RESOLVED) {
@@ -141,12 +221,12 @@ public class DataInitializationService implements CommandLineRunner {
                 // Customer reply
                 reply.setAuthorName(ticket.getCustomerName());
                 reply.setAuthorEmail(ticket.getCustomerEmail());
-                reply.setMessage(generateCustomerReply());
+                reply.setMessage(generateCustomerReply(random));
             } else {
                 // Support reply
                 reply.setAuthorName("Support Team");
                 reply.setAuthorEmail("support@foodordering.lk");
-                reply.setMessage(generateSupportReply());
+                reply.setMessage(generateSupportReply(random));
             }
             
             reply.setCreatedDate(ticket.getCreatedDate().plusHours(i * 6 + random.nextInt(6)));
@@ -154,16 +234,207 @@ public class DataInitializationService implements CommandLineRunner {
         }
     }
     
+    // Generate generatorOrders orders with tickets and replies. Row contents depend only on the seed
+    // and the run's start time: work is split into fixed partitions, partition i always uses
+    // Random(seed + i) whichever thread runs it, and every partition dates its rows from the same
+    // reference instant. Ids come from the shared sequences in flush order, so with more than one
+    // thread the same rows can get different ids from run to run; threads=1 keeps them stable too.
+    // Each partition commits in its own transaction and inserts through JDBC batches.
+    private void generateBulkData(List<MenuItem> menu) {
+        int threads = generatorThreads > 0 ? generatorThreads : Runtime.getRuntime().availableProcessors();
+        int partitions = (generatorOrders + GENERATOR_PARTITION_SIZE - 1) / GENERATOR_PARTITION_SIZE;
+        System.out.println("🏭 Generating " + generatorOrders + " orders in " + partitions
+                + " partitions on " + threads + " threads (seed " + generatorSeed + ")...");
+        
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        AtomicLong tickets = new AtomicLong();
+        AtomicLong replies = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                int count = Math.min(GENERATOR_PARTITION_SIZE, generatorOrders - partition * GENERATOR_PARTITION_SIZE);
+                futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                        generatePartition(new Random(generatorSeed + partition), now, count, menu, tickets, replies))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Bulk data generation failed", e);
+        } finally {
+            executor.shutdown();
+        }
+        
+        long seconds = Math.max(1, (System.nanoTime() - start) / 1_000_000_000);
+        System.out.println("✅ Generated " + generatorOrders + " orders, " + tickets.get() + " tickets and "
+                + replies.get() + " replies in " + seconds + "s");
+    }
+    
+    private void generatePartition(Random random, LocalDateTime now, int orderCount, List<MenuItem> menu,
+                                   AtomicLong ticketTotal, AtomicLong replyTotal) {
+        int pending = 0;
+        for (int i = 0; i < orderCount; i++) {
+            Order order = generateBulkOrder(random, now, menu);
+            entityManager.persist(order);
+            pending += 1 + order.getLines().size();
+            
+            // Fractional rate: 0.2 means one ticket for roughly every fifth order
+            int ticketCount = (int) generatorTicketsPerOrder
+                    + (random.nextDouble() < generatorTicketsPerOrder % 1 ? 1 : 0);
+            for (int t = 0; t < ticketCount; t++) {
+                Ticket ticket = generateBulkTicket(random, order, now);
+                entityManager.persist(ticket);
+                ticketTotal.incrementAndGet();
+                pending++;
+                
+                int replyCount = random.nextInt(generatorMaxReplies + 1);
+                LocalDateTime replyDate = ticket.getCreatedDate();
+                for (int r = 0; r < replyCount; r++) {
+                    // First response is usually quick for urgent tickets, follow-ups spread out
+                    replyDate = replyDate.plusMinutes(responseMinutes(random, ticket.getPriority()));
+                    if (replyDate.isAfter(now)) {
+                        break;
+                    }
+                    entityManager.persist(generateBulkReply(random, ticket, r, replyDate));
+                    replyTotal.incrementAndGet();
+                    pending++;
+                }
+            }
+            
+            if (pending >= generatorBatchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private Order generateBulkOrder(Random random, LocalDateTime now, List<MenuItem> menu) {
+        // Skewed customer pick so a few regulars place many orders, like real traffic
+        int customer = (int) (generatorCustomers * Math.pow(random.nextDouble(), 3));
+        String customerName = sriLankanNames.get(customer % sriLankanNames.size());
+        
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setCustomerEmail(generateEmail(customerName).replace("@", customer + "@"));
+        order.setCustomerPhone(generatePhoneNumber(random));
+        order.setDeliveryAddress(generateAddress(random));
+        order.setLines(generateOrderLines(random, menu));
+        order.setTotalAmount(totalOf(order.getLines()));
+        order.setCurrency("LKR");
+        order.setOrderDate(generateBulkOrderDate(random, now));
+        order.setStatus(generateBulkOrderStatus(random, order.getOrderDate(), now));
+        order.setSpecialInstructions(generateSpecialInstructions(random));
+        return order;
+    }
+    
+    private Ticket generateBulkTicket(Random random, Order order, LocalDateTime now) {
+        Ticket ticket = new Ticket();
+        ticket.setOrder(order);
+        ticket.setCustomerName(order.getCustomerName());
+        ticket.setCustomerEmail(order.getCustomerEmail());
+        ticket.setCustomerPhone(order.getCustomerPhone());
+        ticket.setTitle(generateTicketTitle(random));
+        ticket.setDescription(generateTicketDescription(random));
+        ticket.setPriority(generateTicketPriority(random));
+        ticket.setCategory(ticketCategories.get(random.nextInt(ticketCategories.size())));
+        
+        LocalDateTime created = order.getOrderDate().plusMinutes(30 + random.nextInt(48 * 60));
+        if (created.isAfter(now)) {
+            created = now.minusMinutes(random.nextInt(60));
+        }
+        ticket.setCreatedDate(created);
+        
+        // Older tickets are much more likely to be finished
+        long ageHours = Duration.between(created, now).toHours();
+        double finished = Math.min(0.95, ageHours / 96.0);
+        if (random.nextDouble() < finished) {
+            LocalDateTime resolved = created.plusMinutes(responseMinutes(random, ticket.getPriority()) * 4L);
+            if (resolved.isAfter(now)) {
+                resolved = now;
+            }
+            ticket.setStatus(random.nextInt(3) == 0 ? Ticket.TicketStatus.CLOSED : Ticket.TicketStatus.RESOLVED);
+            ticket.setResolvedDate(resolved);
+            ticket.setUpdatedDate(resolved);
+        } else {
+            ticket.setStatus(random.nextBoolean() ? Ticket.TicketStatus.OPEN : Ticket.TicketStatus.IN_PROGRESS);
+            ticket.setUpdatedDate(created);
+        }
+        return ticket;
+    }
+    
+    private TicketReply generateBulkReply(Random random, Ticket ticket, int index, LocalDateTime createdDate) {
+        TicketReply reply = new TicketReply();
+        reply.setTicket(ticket);
+        if (index % 2 == 1) {
+            reply.setAuthorName(ticket.getCustomerName());
+            reply.setAuthorEmail(ticket.getCustomerEmail());
+            reply.setMessage(generateCustomerReply(random));
+        } else {
+            reply.setAuthorName("Support Team");
+            reply.setAuthorEmail("support@foodordering.lk");
+            reply.setMessage(generateSupportReply(random));
+        }
+        reply.setCreatedDate(createdDate);
+        return reply;
+    }
+    
+    private LocalDateTime generateBulkOrderDate(Random random, LocalDateTime now) {
+        int total = Arrays.stream(HOURLY_ORDER_WEIGHTS).sum();
+        int pick = random.nextInt(total);
+        int hour = 0;
+        while (pick >= HOURLY_ORDER_WEIGHTS[hour]) {
+            pick -= HOURLY_ORDER_WEIGHTS[hour];
+            hour++;
+        }
+        LocalDateTime date = now.toLocalDate().minusDays(random.nextInt(Math.max(1, generatorDays)))
+                .atTime(hour, random.nextInt(60), random.nextInt(60));
+        return date.isAfter(now) ? date.minusDays(1) : date;
+    }
+    
+    private Order.OrderStatus generateBulkOrderStatus(Random random, LocalDateTime orderDate, LocalDateTime now) {
+        long ageMinutes = Duration.between(orderDate, now).toMinutes();
+        int rand = random.nextInt(100);
+        if (ageMinutes > 180) {
+            // Settled orders: mostly delivered, some cancelled
+            return rand < 90 ? Order.OrderStatus.DELIVERED : Order.OrderStatus.CANCELLED;
+        }
+        // Recent orders are spread along the pipeline
+        if (rand < 5) return Order.OrderStatus.CANCELLED;
+        if (rand < 25) return Order.OrderStatus.PENDING;
+        if (rand < 45) return Order.OrderStatus.CONFIRMED;
+        if (rand < 65) return Order.OrderStatus.PREPARING;
+        if (rand < 85) return Order.OrderStatus.OUT_FOR_DELIVERY;
+        return Order.OrderStatus.DELIVERED;
+    }
+    
+    // Minutes until the next response, faster for urgent tickets (roughly exponential)
+    private long responseMinutes(Random random, Ticket.Priority priority) {
+        double mean;
+        switch (priority) {
+            case URGENT: mean = 20; break;
+            case HIGH: mean = 60; break;
+            case MEDIUM: mean = 240; break;
+            default: mean = 600;
+        }
+        return 1 + (long) (-mean * Math.log(1 - random.nextDouble()));
+    }
+    
     private String generateEmail(String name) {
         String[] parts = name.toLowerCase().split(" ");
         return parts[0] + "." + parts[1] + "@gmail.com";
     }
     
-    private String generatePhoneNumber() {
+    private String generatePhoneNumber(Random random) {
         return "077" + String.format("%07d", random.nextInt(10000000));
     }
     
-    private String generateAddress() {
+    private String generateAddress(Random random) {
         String[] areas = {"Colombo", "Kandy", "Galle", "Negombo", "Matara", "Kurunegala", "Anuradhapura", "Ratnapura"};
         String[] streets = {"Main Street", "Galle Road", "Kandy Road", "Temple Road", "Lake Road", "Station Road"};
         
@@ -172,34 +443,37 @@ public class DataInitializationService implements CommandLineRunner {
                areas[random.nextInt(areas.length)];
     }
     
-    private String generateFoodItemsList() {
+    private List<OrderLine> generateOrderLines(Random random, List<MenuItem> menu) {
         int itemCount = random.nextInt(4) + 2; // 2-5 items
-        StringBuilder items = new StringBuilder();
+        List<OrderLine> lines = new ArrayList<>(itemCount);
         
         for (int i = 0; i < itemCount; i++) {
-            if (i > 0) items.append("\n");
             int quantity = random.nextInt(3) + 1;
-            String item = foodItems.get(random.nextInt(foodItems.size()));
-            items.append(quantity).append("x ").append(item);
+            MenuItem item = menu.get(random.nextInt(menu.size()));
+            lines.add(new OrderLine(item, quantity, item.getPrice()));
         }
         
-        return items.toString();
+        return lines;
     }
     
-    private BigDecimal generateTotalAmount() {
-        return BigDecimal.valueOf(500 + random.nextInt(4500)); // LKR 500-5000
+    private BigDecimal totalOf(List<OrderLine> lines) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderLine line : lines) {
+            total = total.add(line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+        }
+        return total;
     }
     
-    private Order.OrderStatus generateOrderStatus() {
+    private Order.OrderStatus generateOrderStatus(Random random) {
         Order.OrderStatus[] statuses = Order.OrderStatus.values();
         return statuses[random.nextInt(statuses.length)];
     }
     
-    private LocalDateTime generateOrderDate() {
+    private LocalDateTime generateOrderDate(Random random) {
         return LocalDateTime.now().minusDays(random.nextInt(30)).minusHours(random.nextInt(24));
     }
     
-    private String generateSpecialInstructions() {
+    private String generateSpecialInstructions(Random random) {
         String[] instructions = {
             "Please call before delivery",
             "Leave at the gate if no one answers",
@@ -212,7 +486,7 @@ public class DataInitializationService implements CommandLineRunner {
         return instructions[random.nextInt(instructions.length)];
     }
     
-    private String generateTicketTitle() {
+    private String generateTicketTitle(Random random) {
         String[] titles = {
             "Food was cold when delivered",
             "Wrong order received",
@@ -226,7 +500,7 @@ public class DataInitializationService implements CommandLineRunner {
         return titles[random.nextInt(titles.length)];
     }
     
-    private String generateTicketDescription() {
+    private String generateTicketDescription(Random random) {
         String[] descriptions = {
             "I ordered food but it arrived cold and the taste was not good. Please look into this matter.",
             "I received a completely different order than what I requested. This is very disappointing.",
@@ -240,7 +514,7 @@ public class DataInitializationService implements CommandLineRunner {
         return descriptions[random.nextInt(descriptions.length)];
     }
     
-    private Ticket.Priority generateTicketPriority() {
+    private Ticket.Priority generateTicketPriority(Random random) {
         Ticket.Priority[] priorities = Ticket.Priority.values();
         // Weight towards medium and low priorities
         int rand = random.nextInt(10);
@@ -250,16 +524,16 @@ public class DataInitializationService implements CommandLineRunner {
         return Ticket.Priority.LOW;
     }
     
-    private Ticket.TicketStatus generateTicketStatus() {
+    private Ticket.TicketStatus generateTicketStatus(Random random) {
         Ticket.TicketStatus[] statuses = Ticket.TicketStatus.values();
         return statuses[random.nextInt(statuses.length)];
     }
     
-    private LocalDateTime generateTicketDate() {
+    private LocalDateTime generateTicketDate(Random random) {
         return LocalDateTime.now().minusDays(random.nextInt(15)).minusHours(random.nextInt(24));
     }
     
-    private String generateCustomerReply() {
+    private String generateCustomerReply(Random random) {
         String[] replies = {
             "Thank you for looking into this. I hope this gets resolved soon.",
             "I'm still waiting for a proper response to my complaint.",
@@ -270,7 +544,7 @@ public class DataInitializationService implements CommandLineRunner {
         return replies[random.nextInt(replies.length)];
     }
     
-    private String generateSupportReply() {
+    private String generateSupportReply(Random random) {
         String[] replies = {
             "Thank you for contacting us. We are looking into your issue and will get back to you soon.",
             "We apologize for the inconvenience. We have forwarded your complaint to the relevant department.",
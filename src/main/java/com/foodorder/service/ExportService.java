@@ -0,0 +1,218 @@
+package com.foodorder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
+import com.foodorder.entity.TicketReply;
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.repository.TicketReplyRepository;
+import com.foodorder.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Streams orders, tickets and replies to a writer row by row.
+// Rows come from a forward-only cursor and are detached once written, so memory stays flat
+// no matter how many rows match.
+@Service
+public class ExportService {
+    
+    private static final int FLUSH_EVERY = 500;
+    
+    private static final String[] ORDER_COLUMNS = {
+        "id", "customerName", "customerEmail", "customerPhone", "deliveryAddress", "foodItems",
+        "totalAmount", "currency", "status", "orderDate", "specialInstructions"
+    };
+    
+    private static final String[] TICKET_COLUMNS = {
+        "id", "title", "description", "priority", "category", "customerName", "customerEmail",
+        "customerPhone", "status", "createdDate", "updatedDate", "resolvedDate", "orderId"
+    };
+    
+    private static final String[] REPLY_COLUMNS = {
+        "id", "ticketId", "authorName", "authorEmail", "message", "createdDate"
+    };
+    
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+    }
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketReplyRepository ticketReplyRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Export orders matching the same filters as the order list; returns the number of rows written
+    @Transactional(readOnly = true)
+    public long exportOrders(String customerName, String customerEmail, Order.OrderStatus status,
+                             LocalDateTime startDate, LocalDateTime endDate,
+                             ExportFormat format, Writer writer) throws IOException {
+        CacheMode cacheMode = bypassCacheStore();
+        try (Stream<Order> rows = orderRepository.streamOrders(emptyToNull(customerName),
+                emptyToNull(customerEmail), status, startDate, endDate)) {
+            return writeRows(rows, ORDER_COLUMNS, order -> new Object[] {
+                order.getId(), order.getCustomerName(), order.getCustomerEmail(), order.getCustomerPhone(),
+                order.getDeliveryAddress(), order.getFoodItems(), order.getTotalAmount(), order.getCurrency(),
+                order.getStatus(), order.getOrderDate(), order.getSpecialInstructions()
+            }, format, writer);
+        } finally {
+            restoreCacheMode(cacheMode);
+        }
+    }
+    
+    // Export tickets matching the same filters as the ticket list; returns the number of rows written
+    @Transactional(readOnly = true)
+    public long exportTickets(String title, String description, String customerName, String category,
+                              Ticket.TicketStatus status, Ticket.Priority priority,
+                              LocalDateTime startDate, LocalDateTime endDate,
+                              ExportFormat format, Writer writer) throws IOException {
+        CacheMode cacheMode = bypassCacheStore();
+        try (Stream<Ticket> rows = ticketRepository.streamTickets(emptyToNull(title), emptyToNull(description),
+                emptyToNull(customerName), emptyToNull(category), status, priority, startDate, endDate)) {
+            return writeRows(rows, TICKET_COLUMNS, ticket -> new Object[] {
+                ticket.getId(), ticket.getTitle(), ticket.getDescription(), ticket.getPriority(),
+                ticket.getCategory(), ticket.getCustomerName(), ticket.getCustomerEmail(),
+                ticket.getCustomerPhone(), ticket.getStatus(), ticket.getCreatedDate(),
+                ticket.getUpdatedDate(), ticket.getResolvedDate(), ticket.getOrderId()
+            }, format, writer);
+        } finally {
+            restoreCacheMode(cacheMode);
+        }
+    }
+    
+    // Export replies, optionally for a single ticket and/or a creation date range
+    @Transactional(readOnly = true)
+    public long exportReplies(Long ticketId, LocalDateTime startDate, LocalDateTime endDate,
+                              ExportFormat format, Writer writer) throws IOException {
+        CacheMode cacheMode = bypassCacheStore();
+        try (Stream<TicketReply> rows = ticketReplyRepository.streamReplies(ticketId, startDate, endDate)) {
+            return writeRows(rows, REPLY_COLUMNS, reply -> new Object[] {
+                reply.getId(), reply.getTicketId(), reply.getAuthorName(), reply.getAuthorEmail(),
+                reply.getMessage(), reply.getCreatedDate()
+            }, format, writer);
+        } finally {
+            restoreCacheMode(cacheMode);
+        }
+    }
+    
+    // Exported rows are read once, so they must not push hot entries out of the second-level cache.
+    // The query hint alone doesn't cover them: a stream is read after the query call has returned
+    // and restored the session's cache mode, and lazy loads (order lines) run outside the query.
+    // GET still reads cached entries but never stores new ones. Restored afterwards because the
+    // session stays open for the rest of the request.
+    private CacheMode bypassCacheStore() {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return previous;
+    }
+    
+    private void restoreCacheMode(CacheMode cacheMode) {
+        entityManager.unwrap(Session.class).setCacheMode(cacheMode);
+    }
+    
+    private <T> long writeRows(Stream<T> rows, String[] columns, Function<T, Object[]> values,
+                               ExportFormat format, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(columns, writer);
+        }
+        
+        long[] count = {0};
+        try {
+            rows.forEachOrdered(row -> {
+                try {
+                    Object[] line = values.apply(row);
+                    if (format == ExportFormat.CSV) {
+                        writeCsvLine(line, writer);
+                    } else {
+                        writeJsonLine(columns, line, writer);
+                    }
+                    // Written rows are never needed again; keep the persistence context from growing
+                    entityManager.detach(row);
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+    
+    private void writeCsvLine(Object[] values, Writer writer) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvEscape(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    private void writeJsonLine(String[] columns, Object[] values, Writer writer) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            row.put(columns[i], values[i]);
+        }
+        // writeValueAsString rather than writeValue(writer, ...) so Jackson doesn't close the response writer
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+    
+    private String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
+    private String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+}
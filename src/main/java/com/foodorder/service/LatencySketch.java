@@ -0,0 +1,114 @@
+package com.foodorder.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram.
+ * Values below 64 are counted exactly; above that every power of two is split into 32 linear
+ * sub-buckets, so a reported percentile is within about 3% of the true value. Buckets hold plain
+ * counts, which makes sketches mergeable by addition (time windows, other nodes) and lets a
+ * window be taken out of a running total again by subtraction.
+ */
+public class LatencySketch {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    // Values are clamped to 2^30 - 1 (about 34 years in seconds)
+    private static final int MAX_EXPONENT = 30;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKET_COUNT = 2 * SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+    
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    
+    public synchronized void record(long value) {
+        counts[indexOf(value)]++;
+        totalCount++;
+    }
+    
+    public void merge(LatencySketch other) {
+        add(other.copyCounts(), 1);
+    }
+    
+    public void subtract(LatencySketch other) {
+        add(other.copyCounts(), -1);
+    }
+    
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+    
+    // Upper bound of the bucket holding the given percentile (0-100); null when empty
+    public synchronized Long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKET_COUNT - 1);
+    }
+    
+    // Non-empty buckets as index -> count, compact enough to ship to another node
+    public synchronized Map<Integer, Long> toSparseCounts() {
+        Map<Integer, Long> sparse = new TreeMap<>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                sparse.put(i, counts[i]);
+            }
+        }
+        return sparse;
+    }
+    
+    public static LatencySketch fromSparseCounts(Map<Integer, Long> sparse) {
+        LatencySketch sketch = new LatencySketch();
+        sparse.forEach((index, count) -> {
+            if (index < 0 || index >= BUCKET_COUNT) {
+                throw new IllegalArgumentException("Bucket index out of range: " + index);
+            }
+            sketch.counts[index] += count;
+            sketch.totalCount += count;
+        });
+        return sketch;
+    }
+    
+    // Copy the other sketch's counts before locking this one, so merges never hold two locks
+    private synchronized long[] copyCounts() {
+        return counts.clone();
+    }
+    
+    private synchronized void add(long[] source, int sign) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += sign * source[i];
+            totalCount += sign * source[i];
+        }
+    }
+    
+    static int indexOf(long value) {
+        long v = Math.min(Math.max(value, 0), MAX_VALUE);
+        if (v < 2 * SUB_BUCKETS) {
+            return (int) v;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (v >>> shift) - SUB_BUCKETS;
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+    
+    static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+        int subBucket = (index - 2 * SUB_BUCKETS) % SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
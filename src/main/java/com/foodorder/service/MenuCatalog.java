@@ -0,0 +1,123 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.MenuItem;
+import com.foodorder.entity.Order;
+import com.foodorder.entity.OrderLine;
+import com.foodorder.repository.MenuItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the free-text food items of an order (one "2x Chicken Kottu Roti" per line) into order
+ * lines against the menu. Menu items are cached by lower-cased name, so parsing an order
+ * normally costs no queries. Items that are not on the menu are rejected rather than added, so
+ * typos never turn into menu items. Menu items without a price give lines without a unit price:
+ * they count towards item demand but add nothing to revenue sums until the item is priced
+ * (prices are not back-filled into existing lines).
+ */
+@Service
+public class MenuCatalog {
+    
+    // "2x Item", "2 x Item" or "2X Item"; a line without a count means one of the item, "0x Item" none
+    private static final Pattern COUNTED_LINE = Pattern.compile("^(\\d{1,9})\\s*[xX]\\s+(.+)$");
+    
+    private static final int MAX_QUANTITY = 999;
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    private final Map<String, MenuItem> itemsByName = new ConcurrentHashMap<>();
+    
+    // Load the menu once the application is ready (after the data initializer has seeded it)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        itemsByName.clear();
+        for (MenuItem item : menuItemRepository.findAll()) {
+            itemsByName.putIfAbsent(key(item.getName()), item);
+        }
+    }
+    
+    // Parse the order's food items text into lines and set them, which also rewrites the text
+    // in its canonical "Nx Item" form. Must run inside the transaction that saves the order.
+    // Throws IllegalArgumentException for an item not on the menu or a count over MAX_QUANTITY.
+    public void applyLines(Order order) {
+        applyLines(order, null, List.of());
+    }
+    
+    // As above for an edited order. Lines keep the unit price they were ordered at: unchanged text
+    // keeps the previous lines as they are, and an item already on the order keeps its old price
+    // when its quantity changes. Only items new to the order are priced from the current menu.
+    public void applyLines(Order order, String previousText, List<OrderLine> previousLines) {
+        String text = order.getFoodItems() == null ? "" : order.getFoodItems();
+        if (!previousLines.isEmpty() && text.equals(previousText)) {
+            order.setLines(new ArrayList<>(previousLines));
+            return;
+        }
+        Map<Long, BigDecimal> previousPrices = new HashMap<>();
+        for (OrderLine line : previousLines) {
+            previousPrices.putIfAbsent(line.getMenuItem().getId(), line.getUnitPrice());
+        }
+        
+        List<OrderLine> lines = new ArrayList<>();
+        // Line breaks only: menu item names may contain commas
+        for (String part : text.split("\\R+")) {
+            String entry = part.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int quantity = 1;
+            Matcher matcher = COUNTED_LINE.matcher(entry);
+            if (matcher.matches()) {
+                quantity = Integer.parseInt(matcher.group(1));
+                entry = matcher.group(2).trim();
+            }
+            if (quantity > MAX_QUANTITY) {
+                throw new IllegalArgumentException("Quantity must be between 0 and " + MAX_QUANTITY + ": " + part.trim());
+            }
+            if (quantity == 0) {
+                continue;
+            }
+            MenuItem item = resolve(entry);
+            BigDecimal unitPrice = previousPrices.containsKey(item.getId())
+                    ? previousPrices.get(item.getId()) : item.getPrice();
+            lines.add(new OrderLine(item, quantity, unitPrice));
+        }
+        if (lines.isEmpty()) {
+            // Only zero quantities: keep the text as entered, with no lines behind it
+            order.getLines().clear();
+        } else {
+            order.setLines(lines);
+        }
+    }
+    
+    private MenuItem resolve(String name) {
+        String key = key(name);
+        MenuItem cached = itemsByName.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Items added to the menu table since the last reload
+        MenuItem item = menuItemRepository.findFirstByNameIgnoreCaseOrderByIdAsc(name)
+                .orElseThrow(() -> new IllegalArgumentException("Not on the menu: " + name));
+        itemsByName.putIfAbsent(key, item);
+        return item;
+    }
+    
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
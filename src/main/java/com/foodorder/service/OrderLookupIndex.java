@@ -0,0 +1,123 @@
+package com.foodorder.service;
+
+import com.foodorder.dto.OrderSuggestion;
+import com.foodorder.entity.Order;
+import com.foodorder.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory prefix index for the type-ahead order picker.
+ * Orders are keyed by their id and by every word of the customer name, so a lookup is
+ * a range scan over the sorted keys that stops after {@code limit} hits, independent
+ * of how many orders exist.
+ */
+@Service
+public class OrderLookupIndex {
+    
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int LOAD_BATCH_SIZE = 1000;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    // "<id>" -> suggestion
+    private final ConcurrentSkipListMap<String, OrderSuggestion> byId = new ConcurrentSkipListMap<>();
+    // "<name or name word>\0<id>" -> suggestion
+    private final ConcurrentSkipListMap<String, OrderSuggestion> byName = new ConcurrentSkipListMap<>();
+    // order id -> name keys currently indexed, needed to unindex on update/delete
+    private final Map<Long, List<String>> nameKeys = new ConcurrentHashMap<>();
+    
+    // Build the index from the orders table once the application is ready
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        byId.clear();
+        byName.clear();
+        nameKeys.clear();
+        // Scalar rows, so nothing accumulates in the persistence context
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = orderRepository.findSuggestionFieldsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                put(new OrderSuggestion(lastId, (String) row[1], (String) row[2], (String) row[3],
+                        (String) row[4], (BigDecimal) row[5]));
+            }
+        } while (rows.size() == LOAD_BATCH_SIZE);
+    }
+    
+    public void put(Order order) {
+        put(new OrderSuggestion(order));
+    }
+    
+    private synchronized void put(OrderSuggestion suggestion) {
+        Long id = suggestion.getId();
+        remove(id);
+        byId.put(id.toString(), suggestion);
+        
+        List<String> keys = new ArrayList<>();
+        String name = suggestion.getCustomerName() == null ? ""
+                : suggestion.getCustomerName().toLowerCase(Locale.ROOT).trim();
+        keys.add(name + KEY_SEPARATOR + id);
+        String[] words = name.split("\\s+");
+        for (int i = 1; i < words.length; i++) {
+            keys.add(words[i] + KEY_SEPARATOR + id);
+        }
+        for (String key : keys) {
+            byName.put(key, suggestion);
+        }
+        nameKeys.put(id, keys);
+    }
+    
+    public synchronized void remove(Long orderId) {
+        byId.remove(orderId.toString());
+        List<String> keys = nameKeys.remove(orderId);
+        if (keys != null) {
+            keys.forEach(byName::remove);
+        }
+    }
+    
+    // At most limit orders whose id or customer name (or a word of it) starts with the query
+    public List<OrderSuggestion> lookup(String query, int limit) {
+        String prefix = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (prefix.startsWith("#")) {
+            prefix = prefix.substring(1);
+        }
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, OrderSuggestion> results = new LinkedHashMap<>();
+        if (prefix.chars().allMatch(Character::isDigit)) {
+            collect(byId.subMap(prefix, prefix + Character.MAX_VALUE), results, limit);
+        }
+        collect(byName.subMap(prefix, prefix + Character.MAX_VALUE), results, limit);
+        return new ArrayList<>(results.values());
+    }
+    
+    private void collect(ConcurrentNavigableMap<String, OrderSuggestion> range,
+                         Map<Long, OrderSuggestion> results, int limit) {
+        for (OrderSuggestion suggestion : range.values()) {
+            if (results.size() >= limit) {
+                return;
+            }
+            results.putIfAbsent(suggestion.getId(), suggestion);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.foodorder.service;
+
+import com.foodorder.dto.OrderRollupBucket;
+import com.foodorder.entity.Order;
+import com.foodorder.entity.OrderRollup;
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.repository.OrderRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hourly and daily rollups of order count and total amount per currency and status
+ * (order_rollups), so volume and revenue over any range is a sum of a few hundred buckets
+ * instead of a scan over the orders.
+ *
+ * Order changes are recorded as per-hour deltas once their transaction commits and written in
+ * one batch per flush interval, so busy hours don't make every order transaction wait on the same
+ * bucket row. Reads add the deltas that are not flushed yet. The tables are rebuilt from the
+ * orders at startup, after the data initializer, so they also cover the data it loads.
+ */
+@Service
+public class OrderRollupService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderRollupService.class);
+    
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // What one order contributes to the rollups
+    public record Snapshot(LocalDateTime orderDate, String currency, Order.OrderStatus status, BigDecimal amount) {
+        
+        public static Snapshot of(Order order) {
+            return new Snapshot(order.getOrderDate(), order.getCurrency(), order.getStatus(), order.getTotalAmount());
+        }
+    }
+    
+    private record BucketKey(OrderRollup.Granularity granularity, LocalDateTime bucketStart,
+                             String currency, Order.OrderStatus status) {
+    }
+    
+    private record Delta(long count, BigDecimal revenue) {
+        
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, revenue.add(other.revenue));
+        }
+        
+        Delta minus(Delta other) {
+            return new Delta(count - other.count, revenue.subtract(other.revenue));
+        }
+        
+        boolean isZero() {
+            return count == 0 && revenue.signum() == 0;
+        }
+    }
+    
+    // Committed changes not yet written, keyed by hour bucket
+    private final Map<BucketKey, Delta> pending = new ConcurrentHashMap<>();
+    // Reads take the read lock so a flush can't be seen half applied (rows written, deltas not yet removed)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void orderAdded(Order order) {
+        record(Snapshot.of(order), 1);
+    }
+    
+    public void orderRemoved(Order order) {
+        record(Snapshot.of(order), -1);
+    }
+    
+    // Move an order's contribution from its old values to its saved ones (before is null for new orders)
+    public void orderChanged(Snapshot before, Order after) {
+        Snapshot current = Snapshot.of(after);
+        if (current.equals(before)) {
+            return;
+        }
+        if (before != null) {
+            record(before, -1);
+        }
+        record(current, 1);
+    }
+    
+    // Bulk status transition: the given orders moved from expected to target.
+    // One grouped query per chunk instead of loading the orders.
+    public void ordersTransitioned(List<Long> orderIds, Order.OrderStatus expected, Order.OrderStatus target) {
+        if (orderIds.isEmpty() || expected == target) {
+            return;
+        }
+        for (Object[] row : orderRepository.sumByHourAndCurrencyInIds(orderIds)) {
+            LocalDateTime hour = hourOf(row);
+            String currency = (String) row[4];
+            long count = ((Number) row[5]).longValue();
+            BigDecimal revenue = (BigDecimal) row[6];
+            record(hour, currency, expected, new Delta(-count, revenue.negate()));
+            record(hour, currency, target, new Delta(count, revenue));
+        }
+    }
+    
+    // One bucket per hour or day starting in [from, to), oldest first; empty buckets are omitted
+    @Transactional(readOnly = true)
+    public List<OrderRollupBucket> getBuckets(OrderRollup.Granularity granularity,
+                                              LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = granularity.truncate(from);
+        LocalDateTime end = ceil(granularity, to);
+        lock.readLock().lock();
+        try {
+            Map<LocalDateTime, OrderRollupBucket> buckets = new TreeMap<>();
+            for (OrderRollup row : orderRollupRepository.findBuckets(granularity, start, end)) {
+                buckets.computeIfAbsent(row.getBucketStart(), OrderRollupBucket::new)
+                        .add(row.getCurrency(), row.getStatus(), row.getOrderCount(), row.getRevenue());
+            }
+            pending.forEach((key, delta) -> {
+                LocalDateTime bucketStart = granularity.truncate(key.bucketStart());
+                if (!bucketStart.isBefore(start) && bucketStart.isBefore(end)) {
+                    buckets.computeIfAbsent(bucketStart, OrderRollupBucket::new)
+                            .add(key.currency(), key.status(), delta.count(), delta.revenue());
+                }
+            });
+            return new ArrayList<>(buckets.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Totals over [from, to) rounded out to whole hours: daily buckets for the full days in the
+    // range and hourly buckets for the partial days at either end
+    @Transactional(readOnly = true)
+    public OrderRollupBucket summarize(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = OrderRollup.Granularity.HOUR.truncate(from);
+        LocalDateTime end = ceil(OrderRollup.Granularity.HOUR, to);
+        LocalDateTime firstDay = ceil(OrderRollup.Granularity.DAY, start);
+        LocalDateTime lastDay = OrderRollup.Granularity.DAY.truncate(end);
+        
+        List<OrderRollupBucket> parts = new ArrayList<>();
+        if (firstDay.isBefore(lastDay)) {
+            parts.addAll(getBuckets(OrderRollup.Granularity.HOUR, start, firstDay));
+            parts.addAll(getBuckets(OrderRollup.Granularity.DAY, firstDay, lastDay));
+            parts.addAll(getBuckets(OrderRollup.Granularity.HOUR, lastDay, end));
+        } else {
+            parts.addAll(getBuckets(OrderRollup.Granularity.HOUR, start, end));
+        }
+        
+        OrderRollupBucket total = new OrderRollupBucket(start);
+        for (OrderRollupBucket part : parts) {
+            total.merge(part);
+        }
+        return total;
+    }
+    
+    // Write pending deltas to the hourly and daily rows
+    @Scheduled(fixedDelayString = "${app.rollups.flush-interval-ms:5000}")
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            // Deltas stay in pending until their rows are committed, so reads never miss them
+            Map<BucketKey, Delta> batch = new HashMap<>(pending);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                log.warn("Order rollup flush failed, {} buckets will be retried", batch.size(), e);
+                return;
+            }
+            removeFromPending(batch);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Recompute all rollups from the orders table with one grouped query. Runs once the data
+    // initializer has loaded its orders; the web server is already listening by then, so changes
+    // keep arriving in pending. Only the deltas recorded before the query are dropped afterwards
+    // (the query counts them); later ones stay pending. Only an order that commits between taking
+    // that snapshot and the query reading its row can still be counted twice.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            Map<BucketKey, Delta> before = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRollupRepository.deleteAllInBatch();
+                before.putAll(pending);
+                Map<BucketKey, Delta> rows = new HashMap<>();
+                for (Object[] row : orderRepository.sumByHourCurrencyAndStatus()) {
+                    Delta delta = new Delta(((Number) row[6]).longValue(), (BigDecimal) row[7]);
+                    addToAllGranularities(rows, hourOf(row), (String) row[4], (Order.OrderStatus) row[5], delta);
+                }
+                List<OrderRollup> rollups = new ArrayList<>(rows.size());
+                rows.forEach((key, delta) -> rollups.add(new OrderRollup(key.granularity(), key.bucketStart(),
+                        key.currency(), key.status(), delta.count(), delta.revenue())));
+                orderRollupRepository.saveAll(rollups);
+            });
+            removeFromPending(before);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Subtract deltas that are now in the rows, keeping whatever was recorded on top of them
+    private void removeFromPending(Map<BucketKey, Delta> written) {
+        written.forEach((key, delta) -> pending.computeIfPresent(key, (k, current) -> {
+            Delta rest = current.minus(delta);
+            return rest.isZero() ? null : rest;
+        }));
+    }
+    
+    private void write(Map<BucketKey, Delta> hourly) {
+        Map<BucketKey, Delta> rows = new HashMap<>();
+        hourly.forEach((key, delta) -> addToAllGranularities(rows, key.bucketStart(), key.currency(), key.status(), delta));
+        rows.forEach((key, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            int updated = orderRollupRepository.addToBucket(key.granularity(), key.bucketStart(), key.currency(),
+                    key.status(), delta.count(), delta.revenue());
+            if (updated == 0) {
+                orderRollupRepository.save(new OrderRollup(key.granularity(), key.bucketStart(), key.currency(),
+                        key.status(), delta.count(), delta.revenue()));
+            }
+        });
+    }
+    
+    private void record(Snapshot snapshot, int sign) {
+        if (snapshot.orderDate() == null || snapshot.amount() == null) {
+            return;
+        }
+        BigDecimal revenue = sign < 0 ? snapshot.amount().negate() : snapshot.amount();
+        record(OrderRollup.Granularity.HOUR.truncate(snapshot.orderDate()), snapshot.currency(), snapshot.status(),
+                new Delta(sign, revenue));
+    }
+    
+    private void record(LocalDateTime hour, String currency, Order.OrderStatus status, Delta delta) {
+        BucketKey key = new BucketKey(OrderRollup.Granularity.HOUR, hour, currency, status);
+        AfterCommit.run(() -> pending.merge(key, delta, Delta::plus));
+    }
+    
+    private static void addToAllGranularities(Map<BucketKey, Delta> rows, LocalDateTime hour, String currency,
+                                              Order.OrderStatus status, Delta delta) {
+        for (OrderRollup.Granularity granularity : OrderRollup.Granularity.values()) {
+            rows.merge(new BucketKey(granularity, granularity.truncate(hour), currency, status), delta, Delta::plus);
+        }
+    }
+    
+    private static LocalDateTime hourOf(Object[] row) {
+        return LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+    }
+    
+    // Start of the first bucket at or after the given time
+    private static LocalDateTime ceil(OrderRollup.Granularity granularity, LocalDateTime time) {
+        LocalDateTime start = granularity.truncate(time);
+        return start.equals(time) ? start : granularity.next(start);
+    }
+}
@@ -1,26 +1,160 @@
 package com.foodorder.service;
 
+import com.foodorder.dto.KeysetCursor;
+import com.foodorder.dto.BulkOrderResult;
+import com.foodorder.dto.BulkTransitionResult;
+import com.foodorder.dto.KeysetPage;
+import com.foodorder.dto.OrderSuggestion;
 import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
 import com.foodorder.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class OrderService {
     
+    // Above this many trigram candidates an IN list stops paying off; fall back to LIKE
+    private static final int MAX_INDEXED_CANDIDATES = 1000;
+    
+    // Must match hibernate.jdbc.batch_size
+    private static final int BULK_BATCH_SIZE = 50;
+    
+    // Keep IN lists of bulk transitions within common database limits
+    private static final int TRANSITION_CHUNK_SIZE = 1000;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private Validator validator;
+    
     @Autowired
     private OrderRepository orderRepository;
     
+    @Autowired
+    private StatusCounterRegistry statusCounterRegistry;
+    
+    @Autowired
+    private TopCustomerTracker topCustomerTracker;
+    
+    @Autowired
+    private TicketSearchIndex ticketSearchIndex;
+    
+    @Autowired
+    private OrderTrigramIndex orderTrigramIndex;
+    
+    @Autowired
+    private OrderLookupIndex orderLookupIndex;
+    
+    @Autowired
+    private TicketCategoryDictionary ticketCategoryDictionary;
+    
+    @Autowired
+    private DashboardPushService dashboardPushService;
+    
+    @Autowired
+    private MenuCatalog menuCatalog;
+    
+    @Autowired
+    private OrderRollupService orderRollupService;
+    
     // Create a new order
     public Order createOrder(Order order) {
         order.setOrderDate(LocalDateTime.now());
-        return orderRepository.save(order);
+        menuCatalog.applyLines(order);
+        Order saved = orderRepository.save(order);
+        statusCounterRegistry.orderCreated(saved.getStatus());
+        topCustomerTracker.orderCreated(saved.getCustomerName(), saved.getCustomerEmail());
+        orderRollupService.orderAdded(saved);
+        dashboardPushService.markChanged();
+        AfterCommit.run(() -> {
+            orderTrigramIndex.put(saved);
+            orderLookupIndex.put(saved);
+        });
+        return saved;
+    }
+    
+    // Create many orders in one transaction. Each item is validated up front and failures are
+    // reported by index; valid orders are inserted through JDBC batches, flushing and clearing the
+    // persistence context every batch so memory stays flat for large payloads.
+    public BulkOrderResult createOrders(List<Order> orders) {
+        long start = System.nanoTime();
+        BulkOrderResult result = new BulkOrderResult(orders.size());
+        List<Order> created = new ArrayList<>();
+        
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (order == null) {
+                result.addFailure(i, List.of("Order is empty"));
+                continue;
+            }
+            Set<ConstraintViolation<Order>> violations = validator.validate(order);
+            if (!violations.isEmpty()) {
+                List<String> errors = new ArrayList<>();
+                for (ConstraintViolation<Order> violation : violations) {
+                    errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+                }
+                result.addFailure(i, errors);
+                continue;
+            }
+            
+            try {
+                menuCatalog.applyLines(order);
+            } catch (IllegalArgumentException e) {
+                result.addFailure(i, List.of("foodItems: " + e.getMessage()));
+                continue;
+            }
+            
+            order.setId(null);
+            order.setTickets(null);
+            if (order.getOrderDate() == null) {
+                order.setOrderDate(LocalDateTime.now());
+            }
+            entityManager.persist(order);
+            created.add(order);
+            if (created.size() % BULK_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        for (Order order : created) {
+            result.addCreated(order.getId());
+            statusCounterRegistry.orderCreated(order.getStatus());
+            topCustomerTracker.orderCreated(order.getCustomerName(), order.getCustomerEmail());
+            orderRollupService.orderAdded(order);
+        }
+        if (!created.isEmpty()) {
+            dashboardPushService.markChanged();
+        }
+        AfterCommit.run(() -> {
+            for (Order order : created) {
+                orderTrigramIndex.put(order);
+                orderLookupIndex.put(order);
+            }
+        });
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
     }
     
     // Get all orders
@@ -35,19 +169,65 @@ public class OrderService {
     
     // Update order
     public Order updateOrder(Order order) {
-        return orderRepository.save(order);
+        // Loading first is free: save() merges into this managed instance anyway
+        Order existing = order.getId() == null ? null : orderRepository.findById(order.getId()).orElse(null);
+        Order.OrderStatus oldStatus = existing == null ? null : existing.getStatus();
+        OrderRollupService.Snapshot before = existing == null ? null : OrderRollupService.Snapshot.of(existing);
+        if (existing == null) {
+            menuCatalog.applyLines(order);
+        } else {
+            menuCatalog.applyLines(order, existing.getFoodItems(), new ArrayList<>(existing.getLines()));
+        }
+        Order saved = orderRepository.save(order);
+        if (oldStatus == null) {
+            statusCounterRegistry.orderCreated(saved.getStatus());
+        } else {
+            statusCounterRegistry.orderStatusChanged(oldStatus, saved.getStatus());
+        }
+        orderRollupService.orderChanged(before, saved);
+        dashboardPushService.markChanged();
+        AfterCommit.run(() -> {
+            orderTrigramIndex.put(saved);
+            orderLookupIndex.put(saved);
+        });
+        return saved;
     }
     
-    // Delete order
+    // Delete order (cascades to its tickets)
     public void deleteOrder(Long id) {
-        orderRepository.deleteById(id);
+        orderRepository.findById(id).ifPresent(order -> {
+            if (order.getTickets() != null) {
+                for (Ticket ticket : order.getTickets()) {
+                    statusCounterRegistry.ticketDeleted(ticket.getStatus(), ticket.getPriority());
+                    ticketCategoryDictionary.ticketRemoved(ticket.getCategory());
+                    Long ticketId = ticket.getId();
+                    AfterCommit.run(() -> ticketSearchIndex.removeTicket(ticketId));
+                }
+            }
+            statusCounterRegistry.orderDeleted(order.getStatus());
+            orderRollupService.orderRemoved(order);
+            orderRepository.delete(order);
+            dashboardPushService.markChanged();
+            AfterCommit.run(() -> {
+                orderTrigramIndex.remove(id);
+                orderLookupIndex.remove(id);
+            });
+        });
     }
     
     // Search orders by customer name
     public List<Order> searchOrdersByCustomerName(String customerName) {
+        if (OrderTrigramIndex.isSearchable(customerName)) {
+            return orderRepository.findAllById(toList(orderTrigramIndex.findByCustomerName(customerName)));
+        }
         return orderRepository.findByCustomerNameContainingIgnoreCase(customerName);
     }
     
+    // Type-ahead lookup by order id or customer name prefix (served from memory)
+    public List<OrderSuggestion> lookupOrders(String query, int limit) {
+        return orderLookupIndex.lookup(query, limit);
+    }
+    
     // Search orders by customer email
     public List<Order> searchOrdersByCustomerEmail(String customerEmail) {
         return orderRepository.findByCustomerEmailIgnoreCase(customerEmail);
@@ -62,9 +242,98 @@ public class OrderService {
     public List<Order> searchOrders(String customerName, String customerEmail, 
                                    Order.OrderStatus status, LocalDateTime startDate, 
                                    LocalDateTime endDate) {
+        List<Long> candidateIds = customerCandidates(customerName, customerEmail);
+        if (candidateIds != null) {
+            return candidateIds.isEmpty() ? List.of()
+                    : orderRepository.searchOrdersInIds(candidateIds, status, startDate, endDate);
+        }
         return orderRepository.searchOrders(customerName, customerEmail, status, startDate, endDate);
     }
     
+    // Get one keyset page of orders (newest first), optionally filtered.
+    // Pass "after" to move to older orders, "before" to move back to newer ones.
+    @Transactional(readOnly = true)
+    public KeysetPage<Order> getOrdersPage(String customerName, String customerEmail,
+                                           Order.OrderStatus status, LocalDateTime startDate,
+                                           LocalDateTime endDate, String after, String before,
+                                           int size) {
+        List<Long> candidateIds = customerCandidates(customerName, customerEmail);
+        if (candidateIds != null && candidateIds.isEmpty()) {
+            return new KeysetPage<>(List.of(), size, null, null);
+        }
+        
+        KeysetCursor beforeCursor = KeysetCursor.decode(before);
+        // Fetch one extra row to find out whether another page exists without counting
+        PageRequest limit = PageRequest.of(0, size + 1);
+        
+        if (beforeCursor != null) {
+            List<Order> rows = candidateIds != null
+                    ? orderRepository.searchOrdersBeforeInIds(candidateIds, status, startDate, endDate,
+                            beforeCursor.getTimestamp(), beforeCursor.getId(), limit)
+                    : orderRepository.searchOrdersBefore(customerName, customerEmail, status,
+                            startDate, endDate, beforeCursor.getTimestamp(), beforeCursor.getId(), limit);
+            boolean hasMore = rows.size() > size;
+            List<Order> content = hasMore ? rows.subList(0, size) : rows;
+            Collections.reverse(content);
+            String previous = hasMore ? cursorOf(content.get(0)) : null;
+            String next = content.isEmpty() ? before : cursorOf(content.get(content.size() - 1));
+            return new KeysetPage<>(content, size, next, previous);
+        }
+        
+        KeysetCursor afterCursor = KeysetCursor.decode(after);
+        List<Order> rows;
+        if (afterCursor == null) {
+            rows = candidateIds != null
+                    ? orderRepository.searchOrdersFirstInIds(candidateIds, status, startDate, endDate, limit)
+                    : orderRepository.searchOrdersFirst(customerName, customerEmail, status,
+                            startDate, endDate, limit);
+        } else {
+            rows = candidateIds != null
+                    ? orderRepository.searchOrdersAfterInIds(candidateIds, status, startDate, endDate,
+                            afterCursor.getTimestamp(), afterCursor.getId(), limit)
+                    : orderRepository.searchOrdersAfter(customerName, customerEmail, status,
+                            startDate, endDate, afterCursor.getTimestamp(), afterCursor.getId(), limit);
+        }
+        boolean hasMore = rows.size() > size;
+        List<Order> content = hasMore ? rows.subList(0, size) : rows;
+        String next = hasMore ? cursorOf(content.get(content.size() - 1)) : null;
+        String previous = afterCursor == null ? null
+                : content.isEmpty() ? after : cursorOf(content.get(0));
+        return new KeysetPage<>(content, size, next, previous);
+    }
+    
+    // Order ids matching the customer name/email filters via the trigram index.
+    // Returns null when the index can't answer (no filter, a term under 3 chars, or too many candidates).
+    private List<Long> customerCandidates(String customerName, String customerEmail) {
+        boolean hasName = StringUtils.hasText(customerName);
+        boolean hasEmail = StringUtils.hasText(customerEmail);
+        if (!hasName && !hasEmail) {
+            return null;
+        }
+        if ((hasName && !OrderTrigramIndex.isSearchable(customerName))
+                || (hasEmail && !OrderTrigramIndex.isSearchable(customerEmail))) {
+            return null;
+        }
+        long[] ids = hasName ? orderTrigramIndex.findByCustomerName(customerName) : null;
+        if (hasEmail) {
+            long[] emailIds = orderTrigramIndex.findByCustomerEmail(customerEmail);
+            ids = ids == null ? emailIds : OrderTrigramIndex.intersect(ids, emailIds);
+        }
+        return ids.length > MAX_INDEXED_CANDIDATES ? null : toList(ids);
+    }
+    
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+    
+    private String cursorOf(Order order) {
+        return new KeysetCursor(order.getOrderDate(), order.getId()).encode();
+    }
+    
     // Get orders by date range
     public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         return orderRepository.findByOrderDateBetween(startDate, endDate);
@@ -81,19 +350,46 @@ public class OrderService {
         return orderRepository.countByStatus(status);
     }
     
-    // Get top customers by order count
-    public List<Object[]> getTopCustomersByOrderCount() {
-        return orderRepository.findTopCustomersByOrderCount();
-    }
-    
     // Update order status
     public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
         Optional<Order> orderOpt = orderRepository.findById(orderId);
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
+            Order.OrderStatus oldStatus = order.getStatus();
+            OrderRollupService.Snapshot before = OrderRollupService.Snapshot.of(order);
             order.setStatus(status);
-            return orderRepository.save(order);
+            Order saved = orderRepository.save(order);
+            statusCounterRegistry.orderStatusChanged(oldStatus, saved.getStatus());
+            orderRollupService.orderChanged(before, saved);
+            dashboardPushService.markChanged();
+            return saved;
         }
         throw new RuntimeException("Order not found with id: " + orderId);
     }
+    
+    // Move many orders from one status to another with set-based statements.
+    // Only orders currently in the expected status change; the result lists which ids transitioned.
+    public BulkTransitionResult transitionOrderStatus(List<Long> orderIds, Order.OrderStatus expected,
+                                                      Order.OrderStatus target) {
+        BulkTransitionResult result = new BulkTransitionResult(expected.name(), target.name());
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        for (int from = 0; from < ids.size(); from += TRANSITION_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + TRANSITION_CHUNK_SIZE, ids.size()));
+            // Lock first so the UPDATE below changes exactly these rows
+            List<Long> locked = orderRepository.lockIdsInStatus(chunk, expected.name());
+            if (!locked.isEmpty()) {
+                orderRepository.transitionStatus(locked, expected, target);
+                orderRollupService.ordersTransitioned(locked, expected, target);
+            }
+            Set<Long> lockedSet = new HashSet<>(locked);
+            for (Long id : chunk) {
+                (lockedSet.contains(id) ? result.getTransitionedIds() : result.getSkippedIds()).add(id);
+            }
+        }
+        statusCounterRegistry.orderStatusChanged(expected, target, result.getTransitionedIds().size());
+        if (!result.getTransitionedIds().isEmpty()) {
+            dashboardPushService.markChanged();
+        }
+        return result;
+    }
 }
@@ -0,0 +1,250 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.Order;
+import com.foodorder.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over order customer names and emails.
+ * <p>
+ * Leading-wildcard {@code LIKE '%term%'} cannot use a B-tree index, so substring lookups
+ * intersect the posting lists of every trigram in the search term, then verify the
+ * survivors against the indexed (lowercased) value. The result is the exact set of
+ * matching order ids, found without touching the orders table.
+ * The orders table remains the source of truth: the index is rebuilt from it at startup
+ * and kept current by {@link OrderService} after each commit.
+ */
+@Service
+public class OrderTrigramIndex {
+    
+    private static final int LOAD_BATCH_SIZE = 1000;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FieldIndex names = new FieldIndex();
+    private final FieldIndex emails = new FieldIndex();
+    
+    // Build the index from the orders table once the application is ready
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            emails.clear();
+            // Scalar rows, so nothing accumulates in the persistence context
+            long lastId = 0;
+            List<Object[]> rows;
+            do {
+                rows = orderRepository.findCustomerFieldsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    names.put(lastId, (String) row[1]);
+                    emails.put(lastId, (String) row[2]);
+                }
+            } while (rows.size() == LOAD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void put(Order order) {
+        lock.writeLock().lock();
+        try {
+            names.put(order.getId(), order.getCustomerName());
+            emails.put(order.getId(), order.getCustomerEmail());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long orderId) {
+        lock.writeLock().lock();
+        try {
+            names.remove(orderId);
+            emails.remove(orderId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Whether a term is long enough to be answered by the index
+    public static boolean isSearchable(String term) {
+        return term != null && term.trim().length() >= 3;
+    }
+    
+    // Ids of orders whose customer name contains the term (case-insensitive), ascending
+    public long[] findByCustomerName(String term) {
+        lock.readLock().lock();
+        try {
+            return names.find(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Ids of orders whose customer email contains the term (case-insensitive), ascending
+    public long[] findByCustomerEmail(String term) {
+        lock.readLock().lock();
+        try {
+            return emails.find(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Intersection of two ascending id arrays
+    public static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+    
+    /**
+     * Trigram postings plus the indexed values (needed to verify matches and to unindex).
+     */
+    static class FieldIndex {
+        
+        private final Map<Integer, IdList> postings = new HashMap<>();
+        private final Map<Long, String> values = new HashMap<>();
+        
+        void put(Long id, String value) {
+            remove(id);
+            if (value == null) {
+                return;
+            }
+            String normalized = value.toLowerCase(Locale.ROOT);
+            values.put(id, normalized);
+            for (int trigram : trigrams(normalized)) {
+                postings.computeIfAbsent(trigram, t -> new IdList()).add(id);
+            }
+        }
+        
+        void remove(Long id) {
+            String previous = values.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (int trigram : trigrams(previous)) {
+                IdList list = postings.get(trigram);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+        
+        long[] find(String term) {
+            String normalized = term.trim().toLowerCase(Locale.ROOT);
+            Set<Integer> queryTrigrams = trigrams(normalized);
+            
+            // Start from the rarest trigram and intersect the rest into it
+            List<IdList> lists = new ArrayList<>(queryTrigrams.size());
+            for (int trigram : queryTrigrams) {
+                IdList list = postings.get(trigram);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort((x, y) -> Integer.compare(x.size, y.size));
+            long[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+                IdList list = lists.get(i);
+                candidates = intersect(candidates, Arrays.copyOf(list.ids, list.size));
+            }
+            
+            // Trigram hits can be false positives ("abcd" vs "abc..bcd"); verify against the value
+            long[] matches = new long[candidates.length];
+            int n = 0;
+            for (long id : candidates) {
+                if (values.get(id).contains(normalized)) {
+                    matches[n++] = id;
+                }
+            }
+            return Arrays.copyOf(matches, n);
+        }
+        
+        void clear() {
+            postings.clear();
+            values.clear();
+        }
+        
+        // Trigrams packed as three 16-bit chars would overflow an int, so hash them; collisions only add candidates
+        private static Set<Integer> trigrams(String value) {
+            Set<Integer> result = new LinkedHashSet<>();
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                result.add(value.substring(i, i + 3).hashCode());
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Sorted, growable array of order ids. Ids normally arrive in increasing order,
+     * so adding is an append; out-of-order ids fall back to a binary-search insert.
+     */
+    static class IdList {
+        
+        private long[] ids = new long[4];
+        private int size;
+        
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size == 0 || ids[size - 1] < id) {
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+        
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch (Metwally et al.).
+ * Tracks at most {@code capacity} keys; when full, the smallest counter is evicted and
+ * its count is inherited by the new key, so reported counts over-estimate by at most
+ * the recorded error. Any key with true frequency above N / capacity is guaranteed to be kept.
+ */
+public class SpaceSavingSketch<K> {
+    
+    private final int capacity;
+    private final Map<K, Counter<K>> counters;
+    
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+    
+    public synchronized void offer(K key) {
+        offer(key, 1);
+    }
+    
+    public synchronized void offer(K key, long increment) {
+        Counter<K> counter = counters.get(key);
+        if (counter != null) {
+            counter.count += increment;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter<>(key, increment, 0));
+            return;
+        }
+        // Evict the minimum; capacity is small so a linear scan is cheaper than keeping a heap in sync
+        Counter<K> min = null;
+        for (Counter<K> candidate : counters.values()) {
+            if (min == null || candidate.count < min.count) {
+                min = candidate;
+            }
+        }
+        counters.remove(min.key);
+        counters.put(key, new Counter<>(key, min.count + increment, min.count));
+    }
+    
+    // Top k entries by estimated count, largest first
+    public synchronized List<Counter<K>> top(int k) {
+        List<Counter<K>> entries = new ArrayList<>(counters.size());
+        for (Counter<K> counter : counters.values()) {
+            entries.add(new Counter<>(counter.key, counter.count, counter.error));
+        }
+        entries.sort(Comparator.comparingLong((Counter<K> c) -> c.count).reversed());
+        return entries.size() > k ? new ArrayList<>(entries.subList(0, k)) : entries;
+    }
+    
+    public synchronized void clear() {
+        counters.clear();
+    }
+    
+    public static class Counter<K> {
+        
+        private final K key;
+        private long count;
+        private final long error;
+        
+        Counter(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+        
+        public K getKey() {
+            return key;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        // Upper bound on how much the count over-estimates the true frequency
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -1,107 +1,136 @@
 package com.foodorder.service;
 
+import com.foodorder.dto.DashboardStatistics;
+import com.foodorder.dto.ItemDemand;
 import com.foodorder.entity.Order;
 import com.foodorder.entity.Ticket;
 import com.foodorder.repository.OrderRepository;
 import com.foodorder.repository.TicketRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class StatisticsService {
     
+    private static final int TOP_CUSTOMERS = 5;
+    
+    // Orders the kitchen still has to prepare
+    private static final Collection<Order.OrderStatus> KITCHEN_STATUSES =
+            EnumSet.of(Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING);
+    
     @Autowired
     private TicketRepository ticketRepository;
     
     @Autowired
     private OrderRepository orderRepository;
     
-    // Get comprehensive dashboard statistics
-    public Map<String, Object> getDashboardStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Ticket statistics
-        stats.put("totalTickets", ticketRepository.count());
-        stats.put("openTickets", ticketRepository.countByStatus(Ticket.TicketStatus.OPEN));
-        stats.put("inProgressTickets", ticketRepository.countByStatus(Ticket.TicketStatus.IN_PROGRESS));
-        stats.put("resolvedTickets", ticketRepository.countByStatus(Ticket.TicketStatus.RESOLVED));
-        stats.put("closedTickets", ticketRepository.countByStatus(Ticket.TicketStatus.CLOSED));
-        
-        // Priority statistics
-        stats.put("urgentTickets", ticketRepository.countByPriority(Ticket.Priority.URGENT));
-        stats.put("highPriorityTickets", ticketRepository.countByPriority(Ticket.Priority.HIGH));
-        stats.put("mediumPriorityTickets", ticketRepository.countByPriority(Ticket.Priority.MEDIUM));
-        stats.put("lowPriorityTickets", ticketRepository.countByPriority(Ticket.Priority.LOW));
-        
-        // Category statistics
-        List<Object[]> categoryStats = ticketRepository.countTicketsByCategory();
-        stats.put("ticketsByCategory", categoryStats);
+    @Autowired
+    private StatusCounterRegistry statusCounterRegistry;
+    
+    @Autowired
+    private TopCustomerTracker topCustomerTracker;
+    
+    // Get comprehensive dashboard statistics.
+    // One grouped query per table plus the two top-customer queries, instead of a COUNT per enum value.
+    @Transactional(readOnly = true)
+    public DashboardStatistics getDashboardStatistics() {
+        DashboardStatistics stats = new DashboardStatistics();
         
-        // Top customers by ticket count
-        List<Object[]> topCustomersByTickets = ticketRepository.findTopCustomersByTicketCount();
-        stats.put("topCustomersByTickets", topCustomersByTickets);
+        // Ticket statistics (status x priority x category)
+        for (Object[] row : ticketRepository.countTicketsByStatusPriorityAndCategory()) {
+            stats.addTicketCount((Ticket.TicketStatus) row[0], (Ticket.Priority) row[1],
+                                 (String) row[2], ((Number) row[3]).longValue());
+        }
         
         // Order statistics
-        stats.put("totalOrders", orderRepository.count());
-        stats.put("pendingOrders", orderRepository.countByStatus(Order.OrderStatus.PENDING));
-        stats.put("confirmedOrders", orderRepository.countByStatus(Order.OrderStatus.CONFIRMED));
-        stats.put("preparingOrders", orderRepository.countByStatus(Order.OrderStatus.PREPARING));
-        stats.put("outForDeliveryOrders", orderRepository.countByStatus(Order.OrderStatus.OUT_FOR_DELIVERY));
-        stats.put("deliveredOrders", orderRepository.countByStatus(Order.OrderStatus.DELIVERED));
-        stats.put("cancelledOrders", orderRepository.countByStatus(Order.OrderStatus.CANCELLED));
+        for (Object[] row : orderRepository.countOrdersGroupedByStatus()) {
+            stats.addOrderCount((Order.OrderStatus) row[0], ((Number) row[1]).longValue());
+        }
         
-        // Top customers by order count
-        List<Object[]> topCustomersByOrders = orderRepository.findTopCustomersByOrderCount();
-        stats.put("topCustomersByOrders", topCustomersByOrders);
+        // Top customers
+        stats.setTopCustomersByTickets(topCustomerTracker.getTopCustomersByTickets(TOP_CUSTOMERS));
+        stats.setTopCustomersByOrders(topCustomerTracker.getTopCustomersByOrders(TOP_CUSTOMERS));
         
         return stats;
     }
     
-    // Get ticket status distribution
+    // Get ticket status distribution (in-memory counters)
     public Map<String, Long> getTicketStatusDistribution() {
-        Map<String, Long> distribution = new HashMap<>();
-        distribution.put("OPEN", ticketRepository.countByStatus(Ticket.TicketStatus.OPEN));
-        distribution.put("IN_PROGRESS", ticketRepository.countByStatus(Ticket.TicketStatus.IN_PROGRESS));
-        distribution.put("RESOLVED", ticketRepository.countByStatus(Ticket.TicketStatus.RESOLVED));
-        distribution.put("CLOSED", ticketRepository.countByStatus(Ticket.TicketStatus.CLOSED));
-        return distribution;
+        return statusCounterRegistry.getTicketStatusDistribution();
     }
     
-    // Get ticket priority distribution
+    // Get ticket priority distribution (in-memory counters)
     public Map<String, Long> getTicketPriorityDistribution() {
-        Map<String, Long> distribution = new HashMap<>();
-        distribution.put("URGENT", ticketRepository.countByPriority(Ticket.Priority.URGENT));
-        distribution.put("HIGH", ticketRepository.countByPriority(Ticket.Priority.HIGH));
-        distribution.put("MEDIUM", ticketRepository.countByPriority(Ticket.Priority.MEDIUM));
-        distribution.put("LOW", ticketRepository.countByPriority(Ticket.Priority.LOW));
-        return distribution;
+        return statusCounterRegistry.getTicketPriorityDistribution();
     }
     
-    // Get order status distribution
+    // Get order status distribution (in-memory counters)
     public Map<String, Long> getOrderStatusDistribution() {
-        Map<String, Long> distribution = new HashMap<>();
-        distribution.put("PENDING", orderRepository.countByStatus(Order.OrderStatus.PENDING));
-        distribution.put("CONFIRMED", orderRepository.countByStatus(Order.OrderStatus.CONFIRMED));
-        distribution.put("PREPARING", orderRepository.countByStatus(Order.OrderStatus.PREPARING));
-        distribution.put("OUT_FOR_DELIVERY", orderRepository.countByStatus(Order.OrderStatus.OUT_FOR_DELIVERY));
-        distribution.put("DELIVERED", orderRepository.countByStatus(Order.OrderStatus.DELIVERED));
-        distribution.put("CANCELLED", orderRepository.countByStatus(Order.OrderStatus.CANCELLED));
-        return distribution;
+        return statusCounterRegistry.getOrderStatusDistribution();
     }
     
     // Get top 5 customers by ticket count
     public List<Object[]> getTop5CustomersByTickets() {
-        List<Object[]> allCustomers = ticketRepository.findTopCustomersByTicketCount();
-        return allCustomers.size() > 5 ? allCustomers.subList(0, 5) : allCustomers;
+        return topCustomerTracker.getTopCustomersByTickets(TOP_CUSTOMERS);
     }
     
     // Get top 5 customers by order count
     public List<Object[]> getTop5CustomersByOrders() {
-        List<Object[]> allCustomers = orderRepository.findTopCustomersByOrderCount();
-        return allCustomers.size() > 5 ? allCustomers.subList(0, 5) : allCustomers;
+        return topCustomerTracker.getTopCustomersByOrders(TOP_CUSTOMERS);
+    }
+    
+    // Top menu items by quantity ordered; without statuses every order except cancelled ones counts
+    @Transactional(readOnly = true)
+    public List<ItemDemand> getItemDemand(Collection<Order.OrderStatus> statuses, LocalDateTime startDate,
+                                          LocalDateTime endDate, int limit) {
+        List<ItemDemand> demand = new ArrayList<>();
+        for (Object[] row : orderRepository.sumItemDemand(statusesOrDefault(statuses), startDate, endDate,
+                PageRequest.of(0, limit))) {
+            demand.add(new ItemDemand((Long) row[0], (String) row[1], ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue(), (BigDecimal) row[4]));
+        }
+        return demand;
+    }
+    
+    // Items still to be cooked: demand over confirmed and preparing orders
+    @Transactional(readOnly = true)
+    public List<ItemDemand> getKitchenDemand(int limit) {
+        return getItemDemand(KITCHEN_STATUSES, null, null, limit);
+    }
+    
+    // Average lines and items per order
+    @Transactional(readOnly = true)
+    public Map<String, Object> getItemsPerOrder(Collection<Order.OrderStatus> statuses, LocalDateTime startDate,
+                                                LocalDateTime endDate) {
+        Object[] row = orderRepository.sumOrderLines(statusesOrDefault(statuses), startDate, endDate).get(0);
+        long orders = row[0] == null ? 0 : ((Number) row[0]).longValue();
+        long lines = row[1] == null ? 0 : ((Number) row[1]).longValue();
+        long items = row[2] == null ? 0 : ((Number) row[2]).longValue();
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("orders", orders);
+        summary.put("lines", lines);
+        summary.put("items", items);
+        summary.put("linesPerOrder", orders == 0 ? 0.0 : (double) lines / orders);
+        summary.put("itemsPerOrder", orders == 0 ? 0.0 : (double) items / orders);
+        return summary;
+    }
+    
+    private Collection<Order.OrderStatus> statusesOrDefault(Collection<Order.OrderStatus> statuses) {
+        if (statuses != null && !statuses.isEmpty()) {
+            return statuses;
+        }
+        return EnumSet.complementOf(EnumSet.of(Order.OrderStatus.CANCELLED));
     }
 }
@@ -0,0 +1,207 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.Order;
+import com.foodorder.entity.Ticket;
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory status/priority counters for orders and tickets.
+ * Services report changes here so distribution reads never hit the database.
+ * Counters are seeded once the application is ready and periodically reconciled
+ * against the database to correct any drift (e.g. rows written outside the services).
+ */
+@Service
+public class StatusCounterRegistry {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    private final EnumCounter<Order.OrderStatus> orderStatusCounts = new EnumCounter<>(Order.OrderStatus.class);
+    private final EnumCounter<Ticket.TicketStatus> ticketStatusCounts = new EnumCounter<>(Ticket.TicketStatus.class);
+    private final EnumCounter<Ticket.Priority> ticketPriorityCounts = new EnumCounter<>(Ticket.Priority.class);
+    
+    // Order events
+    public void orderCreated(Order.OrderStatus status) {
+        AfterCommit.run(() -> orderStatusCounts.increment(status));
+    }
+    
+    public void orderStatusChanged(Order.OrderStatus oldStatus, Order.OrderStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            orderStatusCounts.decrement(oldStatus);
+            orderStatusCounts.increment(newStatus);
+        });
+    }
+    
+    public void orderStatusChanged(Order.OrderStatus oldStatus, Order.OrderStatus newStatus, long count) {
+        if (oldStatus == newStatus || count == 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            orderStatusCounts.add(oldStatus, -count);
+            orderStatusCounts.add(newStatus, count);
+        });
+    }
+    
+    public void orderDeleted(Order.OrderStatus status) {
+        AfterCommit.run(() -> orderStatusCounts.decrement(status));
+    }
+    
+    // Ticket events
+    public void ticketCreated(Ticket.TicketStatus status, Ticket.Priority priority) {
+        AfterCommit.run(() -> {
+            ticketStatusCounts.increment(status);
+            ticketPriorityCounts.increment(priority);
+        });
+    }
+    
+    public void ticketChanged(Ticket.TicketStatus oldStatus, Ticket.Priority oldPriority,
+                              Ticket.TicketStatus newStatus, Ticket.Priority newPriority) {
+        if (oldStatus == newStatus && oldPriority == newPriority) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            ticketStatusCounts.decrement(oldStatus);
+            ticketStatusCounts.increment(newStatus);
+            ticketPriorityCounts.decrement(oldPriority);
+            ticketPriorityCounts.increment(newPriority);
+        });
+    }
+    
+    public void ticketStatusChanged(Ticket.TicketStatus oldStatus, Ticket.TicketStatus newStatus, long count) {
+        if (oldStatus == newStatus || count == 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            ticketStatusCounts.add(oldStatus, -count);
+            ticketStatusCounts.add(newStatus, count);
+        });
+    }
+    
+    public void ticketDeleted(Ticket.TicketStatus status, Ticket.Priority priority) {
+        AfterCommit.run(() -> {
+            ticketStatusCounts.decrement(status);
+            ticketPriorityCounts.decrement(priority);
+        });
+    }
+    
+    // Distribution snapshots
+    public Map<String, Long> getOrderStatusDistribution() {
+        return orderStatusCounts.snapshot();
+    }
+    
+    public Map<String, Long> getTicketStatusDistribution() {
+        return ticketStatusCounts.snapshot();
+    }
+    
+    public Map<String, Long> getTicketPriorityDistribution() {
+        return ticketPriorityCounts.snapshot();
+    }
+    
+    // Seed from the database at startup (after CommandLineRunners) and reconcile periodically
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.statistics.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.statistics.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        // Changes committed while the counts are read are kept on top of them
+        long[] orderBefore = orderStatusCounts.sums();
+        long[] statusBefore = ticketStatusCounts.sums();
+        long[] priorityBefore = ticketPriorityCounts.sums();
+        
+        long[] orderCounts = new long[Order.OrderStatus.values().length];
+        for (Object[] row : orderRepository.countOrdersGroupedByStatus()) {
+            orderCounts[((Order.OrderStatus) row[0]).ordinal()] += ((Number) row[1]).longValue();
+        }
+        
+        long[] statusCounts = new long[Ticket.TicketStatus.values().length];
+        long[] priorityCounts = new long[Ticket.Priority.values().length];
+        for (Object[] row : ticketRepository.countTicketsByStatusPriorityAndCategory()) {
+            long count = ((Number) row[3]).longValue();
+            statusCounts[((Ticket.TicketStatus) row[0]).ordinal()] += count;
+            priorityCounts[((Ticket.Priority) row[1]).ordinal()] += count;
+        }
+        
+        orderStatusCounts.rebase(orderBefore, orderCounts);
+        ticketStatusCounts.rebase(statusBefore, statusCounts);
+        ticketPriorityCounts.rebase(priorityBefore, priorityCounts);
+    }
+    
+    // One LongAdder per enum constant, indexed by ordinal
+    static class EnumCounter<E extends Enum<E>> {
+        
+        private final E[] constants;
+        private final LongAdder[] counts;
+        
+        EnumCounter(Class<E> enumType) {
+            this.constants = enumType.getEnumConstants();
+            this.counts = new LongAdder[constants.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+        
+        void increment(E value) {
+            if (value != null) {
+                counts[value.ordinal()].increment();
+            }
+        }
+        
+        void decrement(E value) {
+            if (value != null) {
+                counts[value.ordinal()].decrement();
+            }
+        }
+        
+        void add(E value, long delta) {
+            if (value != null) {
+                counts[value.ordinal()].add(delta);
+            }
+        }
+        
+        long get(E value) {
+            return counts[value.ordinal()].sum();
+        }
+        
+        long[] sums() {
+            long[] sums = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                sums[i] = counts[i].sum();
+            }
+            return sums;
+        }
+        
+        // Move each count from before to values, keeping whatever was added since before was taken.
+        // A change that commits before the read and is counted after before was taken is counted
+        // twice until the next reconcile.
+        void rebase(long[] before, long[] values) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i].add(values[i] - before[i]);
+            }
+        }
+        
+        Map<String, Long> snapshot() {
+            Map<String, Long> distribution = new HashMap<>();
+            for (E constant : constants) {
+                distribution.put(constant.name(), get(constant));
+            }
+            return distribution;
+        }
+    }
+}
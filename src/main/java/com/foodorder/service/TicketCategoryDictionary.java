@@ -0,0 +1,111 @@
+package com.foodorder.service;
+
+import com.foodorder.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory dictionary of the distinct ticket categories in use.
+ * Each category carries a reference count of tickets, so the sorted list only changes
+ * when a category is introduced or its last ticket goes away. Reloads rebase the counts
+ * onto the database the same way StatusCounterRegistry does.
+ */
+@Service
+public class TicketCategoryDictionary {
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    private final Map<String, Long> ticketCounts = new HashMap<>();
+    private volatile List<String> sortedCategories = List.of();
+    
+    public void ticketAdded(String category) {
+        AfterCommit.run(() -> adjust(category, 1));
+    }
+    
+    public void ticketRemoved(String category) {
+        AfterCommit.run(() -> adjust(category, -1));
+    }
+    
+    public void ticketCategoryChanged(String oldCategory, String newCategory) {
+        if (oldCategory == null ? newCategory == null : oldCategory.equals(newCategory)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            adjust(oldCategory, -1);
+            adjust(newCategory, 1);
+        });
+    }
+    
+    // Distinct categories, sorted; no database access
+    public List<String> getCategories() {
+        return sortedCategories;
+    }
+    
+    // Seed at startup and reconcile on the statistics schedule
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.statistics.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.statistics.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        // Adjustments committed while the counts are read are kept on top of them
+        Map<String, Long> before;
+        synchronized (ticketCounts) {
+            before = new HashMap<>(ticketCounts);
+        }
+        List<Object[]> rows = ticketRepository.countTicketsByCategory();
+        synchronized (ticketCounts) {
+            before.forEach((category, count) -> set(category, ticketCounts.getOrDefault(category, 0L) - count));
+            for (Object[] row : rows) {
+                String category = (String) row[0];
+                set(category, ticketCounts.getOrDefault(category, 0L) + ((Number) row[1]).longValue());
+            }
+            publish();
+        }
+    }
+    
+    private void adjust(String category, long delta) {
+        if (category == null) {
+            return;
+        }
+        synchronized (ticketCounts) {
+            long count = ticketCounts.getOrDefault(category, 0L);
+            set(category, count + delta);
+            if ((count > 0) != (count + delta > 0)) {
+                publish();
+            }
+        }
+    }
+    
+    // Non-zero counts are kept even when negative, so a rebase that is off by a change committed
+    // during the read evens out at the next reload
+    private void set(String category, long count) {
+        if (count == 0) {
+            ticketCounts.remove(category);
+        } else {
+            ticketCounts.put(category, count);
+        }
+    }
+    
+    // Categories with at least one ticket
+    private void publish() {
+        List<String> categories = new ArrayList<>();
+        ticketCounts.forEach((category, count) -> {
+            if (count > 0) {
+                categories.add(category);
+            }
+        });
+        Collections.sort(categories);
+        sortedCategories = Collections.unmodifiableList(categories);
+    }
+}
@@ -0,0 +1,596 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.Ticket;
+import com.foodorder.entity.TicketReply;
+import com.foodorder.repository.TicketReplyRepository;
+import com.foodorder.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over ticket titles, descriptions and reply messages.
+ * <p>
+ * Every ticket body and every reply is indexed as its own document; documents are numbered
+ * in insertion order so posting lists are append-only, delta/varint encoded byte arrays.
+ * Updating a ticket marks its old document deleted and appends a new one; once deleted
+ * documents make up a large share of the index they are dropped and the rest renumbered.
+ * Queries are tokenized the same way; a trailing {@code *} makes a term a prefix query.
+ * A ticket matches when every query term occurs in its body or one of its replies,
+ * and results are ranked by summed BM25 scores.
+ */
+@Service
+public class TicketSearchIndex {
+    
+    private static final int TITLE_BOOST = 2;
+    private static final int MAX_PREFIX_EXPANSION = 64;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "i", "in", "is", "it",
+        "me", "my", "of", "on", "or", "the", "this", "to", "was", "we", "with", "you"
+    ));
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketReplyRepository ticketReplyRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Term dictionary, sorted so prefix queries are a range scan
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    
+    // Per-document data, indexed by document number
+    private long[] docTicketIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private final BitSet deletedDocs = new BitSet();
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+    
+    // Ticket id -> document numbers (the body document first, then replies)
+    private final Map<Long, Integer> bodyDocs = new HashMap<>();
+    private final Map<Long, List<Integer>> replyDocs = new HashMap<>();
+    
+    // Build the index from the database once the application is ready
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            // Scalar rows, so nothing accumulates in the persistence context
+            long lastId = 0;
+            List<Object[]> rows;
+            do {
+                rows = ticketRepository.findSearchFieldsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    addBody(lastId, (String) row[1], (String) row[2]);
+                }
+            } while (rows.size() == LOAD_BATCH_SIZE);
+            
+            lastId = 0;
+            do {
+                rows = ticketReplyRepository.findSearchFieldsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    addReply((Long) row[1], (String) row[2]);
+                }
+            } while (rows.size() == LOAD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Index a new or updated ticket body (title + description)
+    public void indexTicket(Ticket ticket) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = bodyDocs.remove(ticket.getId());
+            if (previous != null) {
+                markDeleted(previous);
+            }
+            addBody(ticket.getId(), ticket.getTitle(), ticket.getDescription());
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Index a reply message under its ticket
+    public void indexReply(TicketReply reply) {
+        lock.writeLock().lock();
+        try {
+            addReply(reply.getTicket().getId(), reply.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Remove a ticket and all of its replies
+    public void removeTicket(Long ticketId) {
+        lock.writeLock().lock();
+        try {
+            Integer body = bodyDocs.remove(ticketId);
+            if (body != null) {
+                markDeleted(body);
+            }
+            List<Integer> replies = replyDocs.remove(ticketId);
+            if (replies != null) {
+                replies.forEach(this::markDeleted);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Ticket ids matching every query term, best match first
+    public List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        for (String raw : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            List<String> tokens = tokenize(raw);
+            for (int i = 0; i < tokens.size(); i++) {
+                terms.add(tokens.get(i));
+                prefixes.add(i == tokens.size() - 1 && raw.endsWith("*"));
+            }
+        }
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            TicketScores scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                TicketScores termScores = scoreTerm(terms.get(i), prefixes.get(i));
+                // AND semantics: keep tickets that matched every term so far
+                scores = scores == null ? termScores : scores.intersect(termScores);
+                if (scores.size == 0) {
+                    return List.of();
+                }
+            }
+            return scores.top(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Number of live documents (ticket bodies + replies)
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private TicketScores scoreTerm(String term, boolean prefix) {
+        List<PostingList> lists = new ArrayList<>();
+        if (prefix) {
+            for (PostingList list : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                lists.add(list);
+                if (lists.size() == MAX_PREFIX_EXPANSION) {
+                    break;
+                }
+            }
+        } else {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        
+        int liveDocs = Math.max(1, docCount - deletedCount);
+        double avgLength = docCount == 0 ? 1 : (double) totalLength / docCount;
+        int hits = 0;
+        for (PostingList list : lists) {
+            hits += list.docFrequency;
+        }
+        TicketScores scores = new TicketScores(hits);
+        for (PostingList list : lists) {
+            double idf = Math.log(1 + (liveDocs - list.docFrequency + 0.5) / (list.docFrequency + 0.5));
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                int doc = cursor.doc();
+                if (deletedDocs.get(doc)) {
+                    continue;
+                }
+                int tf = cursor.frequency();
+                double norm = BM25_K1 * (1 - BM25_B + BM25_B * docLengths[doc] / avgLength);
+                scores.add(docTicketIds[doc], idf * tf * (BM25_K1 + 1) / (tf + norm));
+            }
+        }
+        scores.sumByTicket();
+        return scores;
+    }
+    
+    private void addBody(Long ticketId, String title, String description) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String token : tokenize(title)) {
+            frequencies.merge(token, TITLE_BOOST, Integer::sum);
+        }
+        for (String token : tokenize(description)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        bodyDocs.put(ticketId, addDocument(ticketId, frequencies));
+    }
+    
+    private void addReply(Long ticketId, String message) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String token : tokenize(message)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        replyDocs.computeIfAbsent(ticketId, id -> new ArrayList<>()).add(addDocument(ticketId, frequencies));
+    }
+    
+    private int addDocument(Long ticketId, Map<String, Integer> frequencies) {
+        int doc = docCount++;
+        if (doc == docTicketIds.length) {
+            docTicketIds = Arrays.copyOf(docTicketIds, doc * 2);
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).append(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        docTicketIds[doc] = ticketId;
+        docLengths[doc] = length;
+        totalLength += length;
+        return doc;
+    }
+    
+    private void markDeleted(int doc) {
+        if (!deletedDocs.get(doc)) {
+            deletedDocs.set(doc);
+            deletedCount++;
+        }
+    }
+    
+    // Once deleted documents are over a third of the index, drop them and renumber the live ones.
+    // Renumbering keeps document order, so posting lists stay sorted and the arrays stay dense.
+    private void compactIfNeeded() {
+        if (deletedCount < 1024 || deletedCount * 3 < docCount) {
+            return;
+        }
+        int[] renumbered = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deletedDocs.get(doc)) {
+                renumbered[doc] = -1;
+                totalLength -= docLengths[doc];
+            } else {
+                renumbered[doc] = live;
+                docTicketIds[live] = docTicketIds[doc];
+                docLengths[live] = docLengths[doc];
+                live++;
+            }
+        }
+        postings.entrySet().removeIf(entry -> {
+            entry.getValue().renumber(renumbered);
+            return entry.getValue().docFrequency == 0;
+        });
+        bodyDocs.replaceAll((ticketId, doc) -> renumbered[doc]);
+        replyDocs.values().forEach(docs -> docs.replaceAll(doc -> renumbered[doc]));
+        docCount = live;
+        deletedDocs.clear();
+        deletedCount = 0;
+    }
+    
+    private void clear() {
+        postings.clear();
+        bodyDocs.clear();
+        replyDocs.clear();
+        deletedDocs.clear();
+        docTicketIds = new long[1024];
+        docLengths = new int[1024];
+        docCount = 0;
+        deletedCount = 0;
+        totalLength = 0;
+    }
+    
+    // Lowercase, split on anything that is not a letter or digit, drop stop words and 1-char tokens
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * Append-only posting list: (doc delta, term frequency) pairs as unsigned varints.
+     */
+    static class PostingList {
+        
+        private byte[] data = new byte[8];
+        private int length;
+        private int lastDoc = -1;
+        private int docFrequency;
+        
+        void append(int doc, int frequency) {
+            writeVarInt(doc - lastDoc);
+            writeVarInt(frequency);
+            lastDoc = doc;
+            docFrequency++;
+        }
+        
+        // Rewrite with new document numbers (-1 drops the document); the mapping must keep order
+        void renumber(int[] renumbered) {
+            byte[] oldData = data;
+            int oldLength = length;
+            data = new byte[Math.max(8, oldLength)];
+            length = 0;
+            lastDoc = -1;
+            docFrequency = 0;
+            Cursor cursor = new Cursor(oldData, oldLength);
+            while (cursor.next()) {
+                int doc = renumbered[cursor.doc()];
+                if (doc >= 0) {
+                    append(doc, cursor.frequency());
+                }
+            }
+            data = Arrays.copyOf(data, Math.max(8, length));
+        }
+        
+        Cursor cursor() {
+            return new Cursor(data, length);
+        }
+        
+        private void writeVarInt(int value) {
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+        
+        static class Cursor {
+            
+            private final byte[] data;
+            private final int length;
+            private int position;
+            private int doc = -1;
+            private int frequency;
+            
+            Cursor(byte[] data, int length) {
+                this.data = data;
+                this.length = length;
+            }
+            
+            boolean next() {
+                if (position >= length) {
+                    return false;
+                }
+                doc += readVarInt();
+                frequency = readVarInt();
+                return true;
+            }
+            
+            int doc() {
+                return doc;
+            }
+            
+            int frequency() {
+                return frequency;
+            }
+            
+            private int readVarInt() {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                return value;
+            }
+        }
+    }
+    
+    /**
+     * Ticket ids and scores in parallel primitive arrays. Filled per document hit, then sorted by
+     * ticket id with the scores of one ticket summed, so AND queries intersect by a linear merge.
+     */
+    static class TicketScores {
+        
+        private long[] ids;
+        private double[] scores;
+        private int size;
+        
+        TicketScores(int capacity) {
+            ids = new long[Math.max(1, capacity)];
+            scores = new double[ids.length];
+        }
+        
+        void add(long id, double score) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            ids[size] = id;
+            scores[size] = score;
+            size++;
+        }
+        
+        // Sort by ticket id and collapse hits on the same ticket (body and replies) into one entry
+        void sumByTicket() {
+            sort(0, size - 1);
+            int out = 0;
+            for (int i = 0; i < size; i++) {
+                if (out > 0 && ids[out - 1] == ids[i]) {
+                    scores[out - 1] += scores[i];
+                } else {
+                    ids[out] = ids[i];
+                    scores[out] = scores[i];
+                    out++;
+                }
+            }
+            size = out;
+        }
+        
+        // Tickets present in both, scores added; reuses this instance's arrays
+        TicketScores intersect(TicketScores other) {
+            int out = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    ids[out] = ids[i];
+                    scores[out] = scores[i] + other.scores[j];
+                    out++;
+                    i++;
+                    j++;
+                }
+            }
+            size = out;
+            return this;
+        }
+        
+        // Best tickets first (higher score, then higher id), selected with a min-heap of size limit
+        List<Long> top(int limit) {
+            int k = Math.min(limit, size);
+            if (k <= 0) {
+                return List.of();
+            }
+            int[] heap = new int[k];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (heapSize < k) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (better(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+            Long[] ranked = new Long[heapSize];
+            while (heapSize > 0) {
+                ranked[--heapSize] = ids[heap[0]];
+                heap[0] = heap[heapSize];
+                siftDown(heap, heapSize);
+            }
+            return Arrays.asList(ranked);
+        }
+        
+        private boolean better(int a, int b) {
+            return scores[a] > scores[b] || (scores[a] == scores[b] && ids[a] > ids[b]);
+        }
+        
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!better(heap[parent], heap[index])) {
+                    return;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+        
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= heapSize) {
+                    return;
+                }
+                if (child + 1 < heapSize && better(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!better(heap[index], heap[child])) {
+                    return;
+                }
+                swap(heap, index, child);
+                index = child;
+            }
+        }
+        
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+        
+        // Quicksort on ids, moving scores along; insertion sort for short ranges
+        private void sort(int from, int to) {
+            while (to - from > 16) {
+                long pivot = ids[(from + to) >>> 1];
+                int i = from;
+                int j = to;
+                while (i <= j) {
+                    while (ids[i] < pivot) {
+                        i++;
+                    }
+                    while (ids[j] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swapEntries(i++, j--);
+                    }
+                }
+                // Recurse into the smaller half to bound the stack depth
+                if (j - from < to - i) {
+                    sort(from, j);
+                    from = i;
+                } else {
+                    sort(i, to);
+                    to = j;
+                }
+            }
+            for (int i = from + 1; i <= to; i++) {
+                for (int j = i; j > from && ids[j - 1] > ids[j]; j--) {
+                    swapEntries(j - 1, j);
+                }
+            }
+        }
+        
+        private void swapEntries(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -1,32 +1,75 @@
 package com.foodorder.service;
 
+import com.foodorder.dto.BulkTransitionResult;
+import com.foodorder.dto.KeysetCursor;
+import com.foodorder.dto.KeysetPage;
 import com.foodorder.entity.Ticket;
 import com.foodorder.entity.TicketReply;
 import com.foodorder.repository.TicketRepository;
 import com.foodorder.repository.TicketReplyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class TicketService {
     
+    private static final int MAX_FULL_TEXT_HITS = 1000;
+    
+    // Keep IN lists of bulk transitions within common database limits
+    private static final int TRANSITION_CHUNK_SIZE = 1000;
+    
     @Autowired
     private TicketRepository ticketRepository;
     
     @Autowired
     private TicketReplyRepository ticketReplyRepository;
     
+    @Autowired
+    private StatusCounterRegistry statusCounterRegistry;
+    
+    @Autowired
+    private TopCustomerTracker topCustomerTracker;
+    
+    @Autowired
+    private TicketSearchIndex ticketSearchIndex;
+    
+    @Autowired
+    private TicketCategoryDictionary ticketCategoryDictionary;
+    
+    @Autowired
+    private DashboardPushService dashboardPushService;
+    
+    @Autowired
+    private TicketSlaTracker ticketSlaTracker;
+    
     // Create a new ticket
     public Ticket createTicket(Ticket ticket) {
         ticket.setCreatedDate(LocalDateTime.now());
         ticket.setUpdatedDate(LocalDateTime.now());
-        return ticketRepository.save(ticket);
+        Ticket saved = ticketRepository.save(ticket);
+        statusCounterRegistry.ticketCreated(saved.getStatus(), saved.getPriority());
+        topCustomerTracker.ticketCreated(saved.getCustomerName(), saved.getCustomerEmail());
+        ticketCategoryDictionary.ticketAdded(saved.getCategory());
+        dashboardPushService.markChanged();
+        AfterCommit.run(() -> ticketSearchIndex.indexTicket(saved));
+        return saved;
     }
     
     // Get all tickets
@@ -39,15 +82,46 @@ public class TicketService {
         return ticketRepository.findById(id);
     }
     
+    // Get ticket with order and replies loaded for the detail page (one query)
+    @Transactional(readOnly = true)
+    public Optional<Ticket> getTicketDetail(Long id) {
+        return ticketRepository.findDetailById(id);
+    }
+    
     // Update ticket
     public Ticket updateTicket(Ticket ticket) {
         ticket.setUpdatedDate(LocalDateTime.now());
-        return ticketRepository.save(ticket);
+        // Loading first is free: save() merges into this managed instance anyway
+        Optional<Ticket> existing = ticket.getId() == null ? Optional.empty() : ticketRepository.findById(ticket.getId());
+        Ticket.TicketStatus oldStatus = existing.map(Ticket::getStatus).orElse(null);
+        Ticket.Priority oldPriority = existing.map(Ticket::getPriority).orElse(null);
+        String oldCategory = existing.map(Ticket::getCategory).orElse(null);
+        LocalDateTime oldResolvedDate = existing.map(Ticket::getResolvedDate).orElse(null);
+        Ticket saved = ticketRepository.save(ticket);
+        if (existing.isPresent()) {
+            statusCounterRegistry.ticketChanged(oldStatus, oldPriority, saved.getStatus(), saved.getPriority());
+            ticketCategoryDictionary.ticketCategoryChanged(oldCategory, saved.getCategory());
+            if (oldResolvedDate == null && saved.getResolvedDate() != null) {
+                ticketSlaTracker.ticketResolved(saved);
+            }
+        } else {
+            statusCounterRegistry.ticketCreated(saved.getStatus(), saved.getPriority());
+            ticketCategoryDictionary.ticketAdded(saved.getCategory());
+        }
+        dashboardPushService.markChanged();
+        AfterCommit.run(() -> ticketSearchIndex.indexTicket(saved));
+        return saved;
     }
     
     // Delete ticket
     public void deleteTicket(Long id) {
-        ticketRepository.deleteById(id);
+        ticketRepository.findById(id).ifPresent(ticket -> {
+            statusCounterRegistry.ticketDeleted(ticket.getStatus(), ticket.getPriority());
+            ticketCategoryDictionary.ticketRemoved(ticket.getCategory());
+            ticketRepository.delete(ticket);
+            dashboardPushService.markChanged();
+            AfterCommit.run(() -> ticketSearchIndex.removeTicket(id));
+        });
     }
     
     // Get tickets by status
@@ -84,13 +158,153 @@ public class TicketService {
                                             status, priority, startDate, endDate);
     }
     
+    // Get one keyset page of tickets (no total count), optionally filtered.
+    // Pass "after" to move forward in the chosen order, "before" to move back.
+    // A keyword query is answered by the full-text index and ranked by relevance;
+    // pure status + priority filters start from the agent-queue query backed by the composite index.
+    @Transactional(readOnly = true)
+    public KeysetPage<Ticket> getTicketsPage(String query, String title, String description, String customerName,
+                                             String category, Ticket.TicketStatus status,
+                                             Ticket.Priority priority, LocalDateTime startDate,
+                                             LocalDateTime endDate, SortOrder sortOrder,
+                                             String after, String before, int size) {
+        title = StringUtils.hasText(title) ? title : null;
+        description = StringUtils.hasText(description) ? description : null;
+        customerName = StringUtils.hasText(customerName) ? customerName : null;
+        category = StringUtils.hasText(category) ? category : null;
+        
+        KeysetCursor beforeCursor = KeysetCursor.decode(before);
+        KeysetCursor afterCursor = beforeCursor == null ? KeysetCursor.decode(after) : null;
+        if (StringUtils.hasText(query)) {
+            return searchTicketsFullText(query, title, description, customerName, category,
+                    status, priority, startDate, endDate, afterCursor, beforeCursor, size);
+        }
+        
+        boolean byPriority = sortOrder == SortOrder.PRIORITY;
+        boolean backwards = beforeCursor != null;
+        KeysetCursor cursor = backwards ? beforeCursor : afterCursor;
+        if (cursor != null && byPriority != (cursor.getRank() != null)) {
+            // Cursor from another sort order: start over
+            cursor = null;
+            backwards = false;
+        }
+        // Fetch one extra row to find out whether another page exists without counting
+        PageRequest limit = PageRequest.of(0, size + 1);
+        
+        List<Ticket> rows;
+        if (cursor == null) {
+            Sort sort = byPriority
+                    ? Sort.by(Sort.Direction.DESC, "priorityRank", "createdDate", "id")
+                    : Sort.by(sortOrder == SortOrder.OLDEST ? Sort.Direction.ASC : Sort.Direction.DESC,
+                            "createdDate", "id");
+            PageRequest first = PageRequest.of(0, size + 1, sort);
+            boolean queueOnly = title == null && description == null && customerName == null && category == null
+                    && startDate == null && endDate == null;
+            rows = queueOnly && status != null && priority != null
+                    ? ticketRepository.findByStatusAndPriority(status, priority, first)
+                    : ticketRepository.searchTicketsFirst(title, description, customerName, category,
+                            status, priority, startDate, endDate, first);
+        } else if (byPriority) {
+            rows = backwards
+                    ? ticketRepository.searchTicketsBeforeByPriority(title, description, customerName, category,
+                            status, priority, startDate, endDate, cursor.getRank(), cursor.getTimestamp(),
+                            cursor.getId(), limit)
+                    : ticketRepository.searchTicketsAfterByPriority(title, description, customerName, category,
+                            status, priority, startDate, endDate, cursor.getRank(), cursor.getTimestamp(),
+                            cursor.getId(), limit);
+        } else {
+            // Newest first moves forward to older tickets; oldest first moves forward to newer ones
+            boolean older = (sortOrder == SortOrder.OLDEST) == backwards;
+            rows = older
+                    ? ticketRepository.searchTicketsOlder(title, description, customerName, category,
+                            status, priority, startDate, endDate, cursor.getTimestamp(), cursor.getId(), limit)
+                    : ticketRepository.searchTicketsNewer(title, description, customerName, category,
+                            status, priority, startDate, endDate, cursor.getTimestamp(), cursor.getId(), limit);
+        }
+        
+        boolean hasMore = rows.size() > size;
+        List<Ticket> content = hasMore ? rows.subList(0, size) : rows;
+        if (backwards) {
+            Collections.reverse(content);
+            String previous = hasMore ? cursorOf(content.get(0), byPriority) : null;
+            String next = content.isEmpty() ? before : cursorOf(content.get(content.size() - 1), byPriority);
+            return new KeysetPage<>(content, size, next, previous);
+        }
+        String next = hasMore ? cursorOf(content.get(content.size() - 1), byPriority) : null;
+        String previous = cursor == null ? null
+                : content.isEmpty() ? after : cursorOf(content.get(0), byPriority);
+        return new KeysetPage<>(content, size, next, previous);
+    }
+    
+    // Rank full-text hits, then apply the remaining filters to at most MAX_FULL_TEXT_HITS rows.
+    // The ranked list lives in memory, so a cursor is simply the ticket id it stopped at.
+    private KeysetPage<Ticket> searchTicketsFullText(String query, String title, String description,
+                                                     String customerName, String category,
+                                                     Ticket.TicketStatus status, Ticket.Priority priority,
+                                                     LocalDateTime startDate, LocalDateTime endDate,
+                                                     KeysetCursor afterCursor, KeysetCursor beforeCursor,
+                                                     int size) {
+        List<Long> rankedIds = ticketSearchIndex.search(query, MAX_FULL_TEXT_HITS);
+        if (rankedIds.isEmpty()) {
+            return new KeysetPage<>(List.of(), size, null, null);
+        }
+        
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+        List<Ticket> matches = ticketRepository.searchTicketsInIds(rankedIds, title, description, customerName,
+                category, status, priority, startDate, endDate);
+        matches.sort(Comparator.comparing(ticket -> rank.get(ticket.getId())));
+        
+        // A cursor ticket that no longer matches falls back to the first page
+        int from = 0;
+        int to = Math.min(size, matches.size());
+        int position = beforeCursor != null ? positionOf(matches, beforeCursor.getId())
+                : afterCursor != null ? positionOf(matches, afterCursor.getId()) : -1;
+        if (position >= 0 && beforeCursor != null) {
+            to = position;
+            from = Math.max(0, to - size);
+        } else if (position >= 0) {
+            from = position + 1;
+            to = Math.min(from + size, matches.size());
+        }
+        List<Ticket> content = new ArrayList<>(matches.subList(from, to));
+        String next = to < matches.size() && !content.isEmpty() ? cursorOf(content.get(content.size() - 1), false) : null;
+        String previous = from > 0 && !content.isEmpty() ? cursorOf(content.get(0), false) : null;
+        return new KeysetPage<>(content, size, next, previous);
+    }
+    
+    // Index of the ticket in the list, or -1 when it no longer matches
+    private static int positionOf(List<Ticket> tickets, Long id) {
+        for (int i = 0; i < tickets.size(); i++) {
+            if (tickets.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static String cursorOf(Ticket ticket, boolean byPriority) {
+        return new KeysetCursor(byPriority ? ticket.getPriorityRank() : null, ticket.getCreatedDate(),
+                ticket.getId()).encode();
+    }
+    
     // Update ticket status
     public Ticket updateTicketStatus(Long ticketId, Ticket.TicketStatus status) {
         Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
         if (ticketOpt.isPresent()) {
             Ticket ticket = ticketOpt.get();
+            Ticket.TicketStatus oldStatus = ticket.getStatus();
+            LocalDateTime oldResolvedDate = ticket.getResolvedDate();
             ticket.setStatus(status);
-            return ticketRepository.save(ticket);
+            Ticket saved = ticketRepository.save(ticket);
+            statusCounterRegistry.ticketChanged(oldStatus, saved.getPriority(), saved.getStatus(), saved.getPriority());
+            if (oldResolvedDate == null && saved.getResolvedDate() != null) {
+                ticketSlaTracker.ticketResolved(saved);
+            }
+            dashboardPushService.markChanged();
+            return saved;
         }
         throw new RuntimeException("Ticket not found with id: " + ticketId);
     }
@@ -107,7 +321,10 @@ public class TicketService {
             ticket.setUpdatedDate(LocalDateTime.now());
             ticketRepository.save(ticket);
             
-            return ticketReplyRepository.save(reply);
+            ticketSlaTracker.replyAdding(ticket, reply);
+            TicketReply saved = ticketReplyRepository.save(reply);
+            AfterCommit.run(() -> ticketSearchIndex.indexReply(saved));
+            return saved;
         }
         throw new RuntimeException("Ticket not found with id: " + ticketId);
     }
@@ -132,20 +349,15 @@ public class TicketService {
         return ticketRepository.countTicketsByCategory();
     }
     
-    // Get top customers by ticket count
-    public List<Object[]> getTopCustomersByTicketCount() {
-        return ticketRepository.findTopCustomersByTicketCount();
-    }
-    
     // Get recent tickets
     public List<Ticket> getRecentTickets() {
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
         return ticketRepository.findRecentTickets(thirtyDaysAgo);
     }
     
-    // Get all categories
+    // Get all categories (in-memory dictionary, no table scan)
     public List<String> getAllCategories() {
-        return ticketRepository.findAllCategories();
+        return ticketCategoryDictionary.getCategories();
     }
     
     // Check if ticket can be edited
@@ -153,4 +365,39 @@ public class TicketService {
         Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
         return ticketOpt.map(Ticket::canEdit).orElse(false);
     }
+    
+    // Move many tickets from one status to another with set-based statements.
+    // Mirrors Ticket.setStatus: updatedDate is always stamped, resolvedDate when moving to RESOLVED.
+    public BulkTransitionResult transitionTicketStatus(List<Long> ticketIds, Ticket.TicketStatus expected,
+                                                       Ticket.TicketStatus target) {
+        BulkTransitionResult result = new BulkTransitionResult(expected.name(), target.name());
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(ticketIds));
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += TRANSITION_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + TRANSITION_CHUNK_SIZE, ids.size()));
+            // Lock first so the UPDATE below changes exactly these rows
+            List<Long> locked = ticketRepository.lockIdsInStatus(chunk, expected.name());
+            if (!locked.isEmpty()) {
+                if (target == Ticket.TicketStatus.RESOLVED) {
+                    ticketSlaTracker.ticketsResolving(locked, now);
+                    ticketRepository.transitionStatusResolving(locked, expected, target, now);
+                } else {
+                    ticketRepository.transitionStatus(locked, expected, target, now);
+                }
+            }
+            Set<Long> lockedSet = new HashSet<>(locked);
+            for (Long id : chunk) {
+                (lockedSet.contains(id) ? result.getTransitionedIds() : result.getSkippedIds()).add(id);
+            }
+        }
+        statusCounterRegistry.ticketStatusChanged(expected, target, result.getTransitionedIds().size());
+        if (!result.getTransitionedIds().isEmpty()) {
+            dashboardPushService.markChanged();
+        }
+        return result;
+    }
+    
+    public enum SortOrder {
+        NEWEST, OLDEST, PRIORITY
+    }
 }
@@ -0,0 +1,279 @@
+package com.foodorder.service;
+
+import com.foodorder.dto.SlaPercentiles;
+import com.foodorder.dto.SlaRow;
+import com.foodorder.entity.Ticket;
+import com.foodorder.entity.TicketReply;
+import com.foodorder.repository.TicketReplyRepository;
+import com.foodorder.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Streaming SLA statistics for tickets: time to first staff reply and time to resolution,
+ * recorded as LatencySketch histograms (seconds) overall, per priority and per category.
+ *
+ * Sketches are kept per day (by completion date) for the last app.sla.window-days days, plus a
+ * running total of those days: a day that falls out of the window is subtracted from it, so the
+ * dashboard reads percentiles from the running total without merging or touching the database.
+ * Both sketches are rebuilt from tickets and replies at startup.
+ */
+@Service
+public class TicketSlaTracker {
+    
+    private static final String ALL = "all";
+    private static final String PRIORITY = "priority";
+    private static final String CATEGORY = "category";
+    private static final String UNCATEGORIZED = "Uncategorized";
+    
+    public enum Metric {
+        FIRST_RESPONSE, RESOLUTION
+    }
+    
+    private record SlaKey(Metric metric, String dimension, String value) {
+    }
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketReplyRepository ticketReplyRepository;
+    
+    @Value("${app.sla.window-days:30}")
+    private int windowDays;
+    
+    // Guarded by this
+    private final NavigableMap<LocalDate, Map<SlaKey, LatencySketch>> days = new TreeMap<>();
+    private final Map<SlaKey, LatencySketch> window = new HashMap<>();
+    // Tickets whose first staff reply was recorded since startup, by reply date; expires with the window
+    private final Map<Long, LocalDate> respondedTickets = new HashMap<>();
+    
+    // A ticket just became resolved (for the first time)
+    public void ticketResolved(Ticket ticket) {
+        record(Metric.RESOLUTION, ticket.getCategory(), ticket.getPriority(),
+               ticket.getCreatedDate(), ticket.getResolvedDate());
+    }
+    
+    // Bulk resolve: record the tickets among the given ids that were never resolved before.
+    // Must run before the bulk UPDATE stamps their resolvedDate.
+    public void ticketsResolving(List<Long> ticketIds, LocalDateTime resolvedDate) {
+        for (Object[] row : ticketRepository.findUnresolvedSlaFields(ticketIds)) {
+            record(Metric.RESOLUTION, (String) row[0], (Ticket.Priority) row[1], (LocalDateTime) row[2], resolvedDate);
+        }
+    }
+    
+    // A reply is about to be saved: if it is the first one from staff, record the first response time.
+    // Must run before the reply is saved, or it would count itself as the earlier staff reply.
+    // Two concurrent first replies both pass the database check, so after commit only the first one
+    // recorded for the ticket counts.
+    public void replyAdding(Ticket ticket, TicketReply reply) {
+        if (!isStaffReply(ticket, reply)
+                || ticketReplyRepository.countStaffReplies(ticket.getId(), ticket.getCustomerEmail()) > 0) {
+            return;
+        }
+        Long ticketId = ticket.getId();
+        String category = ticket.getCategory();
+        Ticket.Priority priority = ticket.getPriority();
+        LocalDateTime start = ticket.getCreatedDate();
+        LocalDateTime end = reply.getCreatedDate();
+        if (start == null || end == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                expire();
+                if (respondedTickets.putIfAbsent(ticketId, end.toLocalDate()) == null) {
+                    recordNow(Metric.FIRST_RESPONSE, category, priority, start, end);
+                }
+            }
+        });
+    }
+    
+    public int getWindowDays() {
+        return windowDays;
+    }
+    
+    // SLA rows over the whole window (O(1): read from the running total)
+    public synchronized List<SlaRow> getSlaRows() {
+        expire();
+        return toRows(window);
+    }
+    
+    // SLA rows over the last n days of the window, merged from the daily sketches
+    public synchronized List<SlaRow> getSlaRows(int lastDays) {
+        return toRows(mergeDays(lastDays));
+    }
+    
+    // Sketches of the last n days as sparse bucket counts, keyed "METRIC/dimension/value".
+    // Another node can merge them with LatencySketch.fromSparseCounts and merge().
+    public synchronized Map<String, Map<Integer, Long>> exportSketches(int lastDays) {
+        Map<String, Map<Integer, Long>> export = new TreeMap<>();
+        mergeDays(lastDays).forEach((key, sketch) ->
+                export.put(key.metric() + "/" + key.dimension() + "/" + key.value(), sketch.toSparseCounts()));
+        return export;
+    }
+    
+    // Rebuild the window from resolved tickets and first staff replies
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime since = firstDay().atStartOfDay();
+        Map<LocalDate, Map<SlaKey, LatencySketch>> rebuilt = new TreeMap<>();
+        try (Stream<Object[]> rows = ticketRepository.streamResolutionTimes(since)) {
+            rows.forEach(row -> addToDay(rebuilt, Metric.RESOLUTION, (String) row[0], (Ticket.Priority) row[1],
+                                         (LocalDateTime) row[2], (LocalDateTime) row[3]));
+        }
+        try (Stream<Object[]> rows = ticketReplyRepository.streamFirstResponseTimes(since)) {
+            rows.forEach(row -> addToDay(rebuilt, Metric.FIRST_RESPONSE, (String) row[0], (Ticket.Priority) row[1],
+                                         (LocalDateTime) row[2], (LocalDateTime) row[3]));
+        }
+        synchronized (this) {
+            days.clear();
+            window.clear();
+            days.putAll(rebuilt);
+            for (Map<SlaKey, LatencySketch> day : rebuilt.values()) {
+                day.forEach((key, sketch) -> window.computeIfAbsent(key, k -> new LatencySketch()).merge(sketch));
+            }
+        }
+    }
+    
+    private void record(Metric metric, String category, Ticket.Priority priority,
+                        LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                expire();
+                recordNow(metric, category, priority, start, end);
+            }
+        });
+    }
+    
+    // Caller holds the lock
+    private void recordNow(Metric metric, String category, Ticket.Priority priority,
+                           LocalDateTime start, LocalDateTime end) {
+        Map<SlaKey, LatencySketch> added = new HashMap<>();
+        if (add(added, metric, category, priority, start, end)) {
+            added.forEach((key, sketch) -> {
+                days.computeIfAbsent(end.toLocalDate(), d -> new HashMap<>())
+                        .computeIfAbsent(key, k -> new LatencySketch()).merge(sketch);
+                window.computeIfAbsent(key, k -> new LatencySketch()).merge(sketch);
+            });
+        }
+    }
+    
+    // Record one latency under every key it belongs to; skipped when it completed before the window
+    private boolean add(Map<SlaKey, LatencySketch> sketches, Metric metric, String category,
+                        Ticket.Priority priority, LocalDateTime start, LocalDateTime end) {
+        if (end.toLocalDate().isBefore(firstDay())) {
+            return false;
+        }
+        long seconds = Math.max(0, Duration.between(start, end).getSeconds());
+        for (SlaKey key : keysOf(metric, category, priority)) {
+            sketches.computeIfAbsent(key, k -> new LatencySketch()).record(seconds);
+        }
+        return true;
+    }
+    
+    private void addToDay(Map<LocalDate, Map<SlaKey, LatencySketch>> byDay, Metric metric, String category,
+                          Ticket.Priority priority, LocalDateTime start, LocalDateTime end) {
+        if (start != null && end != null) {
+            add(byDay.computeIfAbsent(end.toLocalDate(), d -> new HashMap<>()), metric, category, priority, start, end);
+        }
+    }
+    
+    // Drop days that left the window and take them out of the running total
+    private void expire() {
+        LocalDate firstDay = firstDay();
+        boolean expired = false;
+        while (!days.isEmpty() && days.firstKey().isBefore(firstDay)) {
+            days.pollFirstEntry().getValue().forEach((key, sketch) -> window.get(key).subtract(sketch));
+            expired = true;
+        }
+        // Replies to these tickets are caught by the database check from now on
+        if (expired) {
+            respondedTickets.values().removeIf(day -> day.isBefore(firstDay));
+        }
+    }
+    
+    private Map<SlaKey, LatencySketch> mergeDays(int lastDays) {
+        expire();
+        LocalDate from = LocalDate.now().minusDays(Math.max(1, Math.min(lastDays, windowDays)) - 1);
+        Map<SlaKey, LatencySketch> merged = new HashMap<>();
+        for (Map<SlaKey, LatencySketch> day : days.tailMap(from, true).values()) {
+            day.forEach((key, sketch) -> merged.computeIfAbsent(key, k -> new LatencySketch()).merge(sketch));
+        }
+        return merged;
+    }
+    
+    private LocalDate firstDay() {
+        return LocalDate.now().minusDays(windowDays - 1);
+    }
+    
+    private List<SlaKey> keysOf(Metric metric, String category, Ticket.Priority priority) {
+        List<SlaKey> keys = new ArrayList<>(3);
+        keys.add(new SlaKey(metric, ALL, ALL));
+        if (priority != null) {
+            keys.add(new SlaKey(metric, PRIORITY, priority.name()));
+        }
+        keys.add(new SlaKey(metric, CATEGORY, category == null || category.isBlank() ? UNCATEGORIZED : category));
+        return keys;
+    }
+    
+    // One row for all tickets, then each priority (most urgent first), then each category
+    private List<SlaRow> toRows(Map<SlaKey, LatencySketch> sketches) {
+        Map<String, String> segments = new LinkedHashMap<>();
+        segments.put(ALL + "/" + ALL, ALL);
+        for (int i = Ticket.Priority.values().length - 1; i >= 0; i--) {
+            segments.put(PRIORITY + "/" + Ticket.Priority.values()[i].name(), PRIORITY);
+        }
+        TreeSet<String> categories = new TreeSet<>();
+        for (SlaKey key : sketches.keySet()) {
+            if (key.dimension().equals(CATEGORY)) {
+                categories.add(key.value());
+            }
+        }
+        for (String category : categories) {
+            segments.put(CATEGORY + "/" + category, CATEGORY);
+        }
+        
+        List<SlaRow> rows = new ArrayList<>();
+        segments.forEach((segment, dimension) -> {
+            String value = segment.substring(dimension.length() + 1);
+            rows.add(new SlaRow(dimension, value,
+                    percentiles(sketches.get(new SlaKey(Metric.FIRST_RESPONSE, dimension, value))),
+                    percentiles(sketches.get(new SlaKey(Metric.RESOLUTION, dimension, value)))));
+        });
+        return rows;
+    }
+    
+    private static SlaPercentiles percentiles(LatencySketch sketch) {
+        if (sketch == null) {
+            return new SlaPercentiles(0, null, null, null);
+        }
+        return new SlaPercentiles(sketch.getTotalCount(), sketch.valueAtPercentile(50),
+                                  sketch.valueAtPercentile(90), sketch.valueAtPercentile(99));
+    }
+    
+    private static boolean isStaffReply(Ticket ticket, TicketReply reply) {
+        return reply.getAuthorEmail() != null && !reply.getAuthorEmail().equalsIgnoreCase(ticket.getCustomerEmail());
+    }
+}
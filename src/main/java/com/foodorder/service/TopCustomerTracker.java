@@ -0,0 +1,104 @@
+package com.foodorder.service;
+
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Top customers by order and ticket count.
+ * In "exact" mode the database returns only the top K groups; in "sketch" mode a
+ * Space-Saving sketch fed on order/ticket creation answers from memory in O(capacity).
+ */
+@Service
+public class TopCustomerTracker {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Value("${app.statistics.top-customers.mode:exact}")
+    private String mode;
+    
+    private final int sketchCapacity;
+    private final SpaceSavingSketch<List<String>> orderSketch;
+    private final SpaceSavingSketch<List<String>> ticketSketch;
+    
+    public TopCustomerTracker(@Value("${app.statistics.top-customers.sketch-capacity:200}") int sketchCapacity) {
+        this.orderSketch = new SpaceSavingSketch<>(sketchCapacity);
+        this.ticketSketch = new SpaceSavingSketch<>(sketchCapacity);
+        this.sketchCapacity = sketchCapacity;
+    }
+    
+    // Counted once the creating transaction commits, so a rolled-back order is never counted
+    public void orderCreated(String customerName, String customerEmail) {
+        if (isSketchMode()) {
+            List<String> customer = List.of(customerName, customerEmail);
+            AfterCommit.run(() -> orderSketch.offer(customer));
+        }
+    }
+    
+    public void ticketCreated(String customerName, String customerEmail) {
+        if (isSketchMode()) {
+            List<String> customer = List.of(customerName, customerEmail);
+            AfterCommit.run(() -> ticketSketch.offer(customer));
+        }
+    }
+    
+    // Top k customers by order count as [name, email, count] rows
+    @Transactional(readOnly = true)
+    public List<Object[]> getTopCustomersByOrders(int k) {
+        if (isSketchMode()) {
+            return toRows(orderSketch.top(k));
+        }
+        return orderRepository.findTopCustomersByOrderCount(PageRequest.of(0, k));
+    }
+    
+    // Top k customers by ticket count as [name, email, count] rows
+    @Transactional(readOnly = true)
+    public List<Object[]> getTopCustomersByTickets(int k) {
+        if (isSketchMode()) {
+            return toRows(ticketSketch.top(k));
+        }
+        return ticketRepository.findTopCustomersByTicketCount(PageRequest.of(0, k));
+    }
+    
+    // Seed the sketches with the current heaviest customers so they are useful right after startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        if (!isSketchMode()) {
+            return;
+        }
+        orderSketch.clear();
+        for (Object[] row : orderRepository.findTopCustomersByOrderCount(PageRequest.of(0, sketchCapacity))) {
+            orderSketch.offer(List.of((String) row[0], (String) row[1]), ((Number) row[2]).longValue());
+        }
+        ticketSketch.clear();
+        for (Object[] row : ticketRepository.findTopCustomersByTicketCount(PageRequest.of(0, sketchCapacity))) {
+            ticketSketch.offer(List.of((String) row[0], (String) row[1]), ((Number) row[2]).longValue());
+        }
+    }
+    
+    private boolean isSketchMode() {
+        return "sketch".equalsIgnoreCase(mode);
+    }
+    
+    private List<Object[]> toRows(List<SpaceSavingSketch.Counter<List<String>>> counters) {
+        List<Object[]> rows = new ArrayList<>(counters.size());
+        for (SpaceSavingSketch.Counter<List<String>> counter : counters) {
+            rows.add(new Object[]{counter.getKey().get(0), counter.getKey().get(1), counter.getCount()});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,83 @@
+package com.foodorder.config;
+
+import com.foodorder.repository.OrderRepository;
+import com.foodorder.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renders the main pages against the seeded sample data with the query budget in FAIL mode,
+ * so a page that exceeds its statement limit in application.properties (or runs an N+1 query)
+ * fails here with a QueryBudgetExceededException.
+ */
+@SpringBootTest(properties = "app.query-budget.mode=FAIL")
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Test
+    void ticketListStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/tickets")).andExpect(status().isOk());
+    }
+    
+    @Test
+    void ticketDetailStaysWithinBudget() throws Exception {
+        Long id = ticketRepository.findAll(Sort.by("id")).get(0).getId();
+        mockMvc.perform(get("/tickets/{id}", id)).andExpect(status().isOk());
+    }
+    
+    @Test
+    void orderListStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/orders")).andExpect(status().isOk());
+    }
+    
+    @Test
+    void orderDetailStaysWithinBudget() throws Exception {
+        Long id = orderRepository.findAll(Sort.by("id")).get(0).getId();
+        mockMvc.perform(get("/orders/{id}", id)).andExpect(status().isOk());
+    }
+    
+    @Test
+    void dashboardStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/dashboard")).andExpect(status().isOk());
+    }
+    
+    @Test
+    void exceedingTheBudgetFailsTheRequest() {
+        QueryBudgetProperties properties = new QueryBudgetProperties();
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        properties.getLimits().put("/tickets", 1);
+        QueryBudgetFilter filter = new QueryBudgetFilter(properties, new SimpleMeterRegistry());
+        
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tickets");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tickets");
+        FilterChain twoStatements = (req, res) -> {
+            orderRepository.count();
+            ticketRepository.count();
+        };
+        
+        assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), twoStatements));
+    }
+}
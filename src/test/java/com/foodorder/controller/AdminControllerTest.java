@@ -0,0 +1,31 @@
+package com.foodorder.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void statisticsAreReadable() throws Exception {
+        mockMvc.perform(get("/admin/cache-statistics")).andExpect(status().isOk());
+    }
+    
+    @Test
+    void resetIsRefusedWithoutTheConfiguredToken() throws Exception {
+        mockMvc.perform(post("/admin/cache-statistics/reset")).andExpect(status().isForbidden());
+        mockMvc.perform(post("/admin/cache-statistics/reset").header(AdminController.TOKEN_HEADER, ""))
+                .andExpect(status().isForbidden());
+    }
+}
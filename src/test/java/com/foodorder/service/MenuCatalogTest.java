@@ -0,0 +1,117 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.MenuItem;
+import com.foodorder.entity.Order;
+import com.foodorder.entity.OrderLine;
+import com.foodorder.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MenuCatalogTest {
+    
+    private final MenuCatalog catalog = new MenuCatalog();
+    private final MenuItem kottu = item(1L, "Chicken Kottu Roti", "950.00");
+    private final MenuItem watalappan = item(2L, "Watalappan", "350.00");
+    private final MenuItem rice = item(3L, "Rice, Dhal and Papadam", "600.00");
+    
+    @BeforeEach
+    void loadMenu() {
+        MenuItemRepository repository = Mockito.mock(MenuItemRepository.class);
+        Mockito.when(repository.findAll()).thenReturn(List.of(kottu, watalappan, rice));
+        ReflectionTestUtils.setField(catalog, "menuItemRepository", repository);
+        catalog.reload();
+    }
+    
+    @Test
+    void parsesCountsAndSkipsZeroQuantities() {
+        Order order = order("2x Chicken Kottu Roti\n0x Watalappan\r\n1 X watalappan");
+        catalog.applyLines(order);
+        
+        assertEquals(2, order.getLines().size());
+        assertEquals(2, order.getLines().get(0).getQuantity());
+        assertEquals(1, order.getLines().get(1).getQuantity());
+        assertEquals("2x Chicken Kottu Roti\n1x Watalappan", order.getFoodItems());
+    }
+    
+    @Test
+    void onlyZeroQuantitiesLeaveNoLines() {
+        Order order = order("0x Watalappan");
+        catalog.applyLines(order);
+        
+        assertTrue(order.getLines().isEmpty());
+        assertEquals("0x Watalappan", order.getFoodItems());
+    }
+    
+    @Test
+    void editKeepsPricesOfItemsAlreadyOrdered() {
+        List<OrderLine> previous = List.of(new OrderLine(kottu, 1, new BigDecimal("900.00")));
+        kottu.setPrice(new BigDecimal("1000.00"));
+        
+        Order order = order("3x Chicken Kottu Roti\n1x Watalappan");
+        catalog.applyLines(order, "1x Chicken Kottu Roti", previous);
+        
+        assertEquals(new BigDecimal("900.00"), order.getLines().get(0).getUnitPrice());
+        assertEquals(3, order.getLines().get(0).getQuantity());
+        assertEquals(new BigDecimal("350.00"), order.getLines().get(1).getUnitPrice());
+    }
+    
+    @Test
+    void editWithUnchangedTextKeepsLines() {
+        OrderLine line = new OrderLine(kottu, 2, new BigDecimal("900.00"));
+        Order order = order("2x Chicken Kottu Roti");
+        catalog.applyLines(order, "2x Chicken Kottu Roti", List.of(line));
+        
+        assertEquals(1, order.getLines().size());
+        assertSame(line, order.getLines().get(0));
+    }
+    
+    @Test
+    void namesMayContainCommas() {
+        Order order = order("2x Rice, Dhal and Papadam");
+        catalog.applyLines(order);
+        
+        assertEquals(1, order.getLines().size());
+        assertSame(rice, order.getLines().get(0).getMenuItem());
+    }
+    
+    @Test
+    void unknownItemsAreRejected() {
+        Order order = order("1x Watalappan\n1x Egg Hoper");
+        
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> catalog.applyLines(order));
+        assertEquals("Not on the menu: Egg Hoper", error.getMessage());
+        assertTrue(order.getLines().isEmpty());
+    }
+    
+    @Test
+    void countsAboveTheLimitAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.applyLines(order("1000x Watalappan")));
+        assertThrows(IllegalArgumentException.class, () -> catalog.applyLines(order("99999999999x Watalappan")));
+        
+        Order order = order("999x Watalappan");
+        catalog.applyLines(order);
+        assertEquals(999, order.getLines().get(0).getQuantity());
+    }
+    
+    private static Order order(String foodItems) {
+        Order order = new Order();
+        order.setFoodItems(foodItems);
+        return order;
+    }
+    
+    private static MenuItem item(Long id, String name, String price) {
+        MenuItem item = new MenuItem(name, new BigDecimal(price));
+        item.setId(id);
+        return item;
+    }
+}
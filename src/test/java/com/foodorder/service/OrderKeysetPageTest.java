@@ -0,0 +1,55 @@
+package com.foodorder.service;
+
+import com.foodorder.dto.KeysetPage;
+import com.foodorder.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Walking the keyset pages forward (first-page query, then next-page queries) and back again
+ * visits every order exactly once, newest first.
+ */
+@SpringBootTest
+class OrderKeysetPageTest {
+    
+    private static final int SIZE = 3;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Test
+    void pagesCoverAllOrdersNewestFirst() {
+        List<Order> expected = new ArrayList<>(orderService.getAllOrders());
+        expected.sort(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed());
+        
+        List<Long> seen = new ArrayList<>();
+        KeysetPage<Order> page = orderService.getOrdersPage(null, null, null, null, null, null, null, SIZE);
+        assertNull(page.getPreviousCursor());
+        List<String> previousCursors = new ArrayList<>();
+        while (true) {
+            page.getContent().forEach(order -> seen.add(order.getId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = orderService.getOrdersPage(null, null, null, null, null, page.getNextCursor(), null, SIZE);
+            previousCursors.add(page.getPreviousCursor());
+        }
+        assertEquals(expected.stream().map(Order::getId).toList(), seen);
+        
+        // One step back from the second page is the first page
+        assertFalse(previousCursors.isEmpty());
+        KeysetPage<Order> first = orderService.getOrdersPage(null, null, null, null, null,
+                null, previousCursors.get(0), SIZE);
+        assertEquals(seen.subList(0, SIZE), first.getContent().stream().map(Order::getId).toList());
+        assertFalse(first.hasPrevious());
+    }
+}
@@ -0,0 +1,58 @@
+package com.foodorder.service;
+
+import com.foodorder.dto.OrderRollupBucket;
+import com.foodorder.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Recorded order changes are visible to reads before and after they are flushed, and flushing
+ * moves them to the rollup rows without counting them twice.
+ */
+@SpringBootTest
+class OrderRollupServiceTest {
+    
+    // Far from the seeded orders so the totals only hold what this test records
+    private static final LocalDateTime HOUR = LocalDateTime.of(2099, 3, 14, 10, 0);
+    
+    @Autowired
+    private OrderRollupService orderRollupService;
+    
+    @Test
+    void flushKeepsTotalsUnchanged() {
+        orderRollupService.orderAdded(order(new BigDecimal("12.50")));
+        orderRollupService.orderAdded(order(new BigDecimal("7.50")));
+        assertTotals(2, "20.00");
+    
+        orderRollupService.flush();
+        assertTotals(2, "20.00");
+    
+        orderRollupService.orderRemoved(order(new BigDecimal("7.50")));
+        assertTotals(1, "12.50");
+    
+        orderRollupService.flush();
+        orderRollupService.flush();
+        assertTotals(1, "12.50");
+    }
+    
+    private void assertTotals(long orders, String revenue) {
+        OrderRollupBucket totals = orderRollupService.summarize(HOUR, HOUR.plusDays(2));
+        assertEquals(orders, totals.getOrderCount());
+        assertEquals(0, new BigDecimal(revenue).compareTo(totals.getRevenueByCurrency().get("LKR")));
+    }
+    
+    private static Order order(BigDecimal amount) {
+        Order order = new Order();
+        order.setOrderDate(HOUR.plusMinutes(5));
+        order.setCurrency("LKR");
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(amount);
+        return order;
+    }
+}
@@ -0,0 +1,35 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reconciling sets the counters to the database counts without dropping changes that were
+ * counted while those counts were being read.
+ */
+class StatusCounterRegistryTest {
+    
+    @Test
+    void rebaseKeepsChangesCountedDuringTheRead() {
+        StatusCounterRegistry.EnumCounter<Order.OrderStatus> counter =
+                new StatusCounterRegistry.EnumCounter<>(Order.OrderStatus.class);
+        counter.add(Order.OrderStatus.PENDING, 5);
+        counter.add(Order.OrderStatus.DELIVERED, 3);
+        
+        long[] before = counter.sums();
+        // Committed while the database is read
+        counter.increment(Order.OrderStatus.PENDING);
+        counter.decrement(Order.OrderStatus.DELIVERED);
+        
+        long[] database = new long[Order.OrderStatus.values().length];
+        database[Order.OrderStatus.PENDING.ordinal()] = 7;
+        database[Order.OrderStatus.DELIVERED.ordinal()] = 2;
+        counter.rebase(before, database);
+        
+        assertEquals(8, counter.get(Order.OrderStatus.PENDING));
+        assertEquals(1, counter.get(Order.OrderStatus.DELIVERED));
+        assertEquals(0, counter.get(Order.OrderStatus.CANCELLED));
+    }
+}
@@ -0,0 +1,43 @@
+package com.foodorder.service;
+
+import com.foodorder.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reloading sets the category counts from the database without dropping tickets added or
+ * removed while those counts were being read.
+ */
+class TicketCategoryDictionaryTest {
+    
+    private final TicketCategoryDictionary dictionary = new TicketCategoryDictionary();
+    private final TicketRepository repository = Mockito.mock(TicketRepository.class);
+    
+    @Test
+    void reloadKeepsChangesCountedDuringTheRead() {
+        ReflectionTestUtils.setField(dictionary, "ticketRepository", repository);
+        Mockito.when(repository.countTicketsByCategory())
+                .thenReturn(List.of(row("Delivery Problem", 2), row("Refund Request", 1)));
+        dictionary.reload();
+        assertEquals(List.of("Delivery Problem", "Refund Request"), dictionary.getCategories());
+        
+        Mockito.when(repository.countTicketsByCategory()).thenAnswer(call -> {
+            // Committed while the database is read
+            dictionary.ticketAdded("Payment Issue");
+            dictionary.ticketRemoved("Refund Request");
+            return List.of(row("Delivery Problem", 3), row("Refund Request", 1));
+        });
+        dictionary.reload();
+        
+        assertEquals(List.of("Delivery Problem", "Payment Issue"), dictionary.getCategories());
+    }
+    
+    private static Object[] row(String category, long count) {
+        return new Object[] {category, count};
+    }
+}
@@ -0,0 +1,53 @@
+package com.foodorder.service;
+
+import com.foodorder.config.QueryCountInspector;
+import com.foodorder.entity.Ticket;
+import com.foodorder.entity.TicketReply;
+import com.foodorder.repository.TicketReplyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The ticket detail page reads the ticket, its order summary and its replies in one query.
+ * Everything the template touches is read here after the load; a lazy association that was not
+ * fetched would either add a statement or fail outside the transaction.
+ */
+@SpringBootTest
+class TicketDetailQueryTest {
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketReplyRepository ticketReplyRepository;
+    
+    @AfterEach
+    void clearStatements() {
+        QueryCountInspector.clear();
+    }
+    
+    @Test
+    void detailWithRepliesIsOneSelect() {
+        TicketReply firstReply = ticketReplyRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1)).get(0);
+        Long ticketId = firstReply.getTicket().getId();
+        
+        QueryCountInspector.reset();
+        Ticket ticket = ticketService.getTicketDetail(ticketId).orElseThrow();
+        assertFalse(ticket.getReplies().isEmpty());
+        for (TicketReply reply : ticket.getReplies()) {
+            reply.getMessage();
+            reply.getAuthorName();
+        }
+        if (ticket.getOrder() != null) {
+            ticket.getOrder().getCustomerName();
+        }
+        
+        assertEquals(1, QueryCountInspector.getCount(), () -> "Statements: " + QueryCountInspector.getShapes());
+    }
+}
@@ -0,0 +1,75 @@
+package com.foodorder.service;
+
+import com.foodorder.dto.KeysetPage;
+import com.foodorder.entity.Ticket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Walking the ticket keyset pages forward and one step back, in every sort order, visits each
+ * ticket exactly once in that order.
+ */
+@SpringBootTest
+class TicketKeysetPageTest {
+    
+    private static final int SIZE = 3;
+    
+    private static final Comparator<Ticket> NEWEST =
+            Comparator.comparing(Ticket::getCreatedDate).thenComparing(Ticket::getId).reversed();
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Test
+    void newestFirst() {
+        assertPages(TicketService.SortOrder.NEWEST, NEWEST);
+    }
+    
+    @Test
+    void oldestFirst() {
+        assertPages(TicketService.SortOrder.OLDEST, NEWEST.reversed());
+    }
+    
+    @Test
+    void mostUrgentFirst() {
+        assertPages(TicketService.SortOrder.PRIORITY,
+                Comparator.comparing(Ticket::getPriorityRank).reversed().thenComparing(NEWEST));
+    }
+    
+    private void assertPages(TicketService.SortOrder sortOrder, Comparator<Ticket> order) {
+        List<Ticket> expected = new ArrayList<>(ticketService.getAllTickets());
+        expected.sort(order);
+        
+        List<Long> seen = new ArrayList<>();
+        List<String> previousCursors = new ArrayList<>();
+        KeysetPage<Ticket> page = page(sortOrder, null, null);
+        while (true) {
+            page.getContent().forEach(ticket -> seen.add(ticket.getId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = page(sortOrder, page.getNextCursor(), null);
+            previousCursors.add(page.getPreviousCursor());
+        }
+        assertEquals(expected.stream().map(Ticket::getId).toList(), seen);
+        
+        // One step back from the second page is the first page
+        assertFalse(previousCursors.isEmpty());
+        KeysetPage<Ticket> first = page(sortOrder, null, previousCursors.get(0));
+        assertEquals(seen.subList(0, SIZE), first.getContent().stream().map(Ticket::getId).toList());
+        assertFalse(first.hasPrevious());
+    }
+    
+    private KeysetPage<Ticket> page(TicketService.SortOrder sortOrder, String after, String before) {
+        return ticketService.getTicketsPage(null, null, null, null, null, null, null, null, null,
+                sortOrder, after, before, SIZE);
+    }
+}
@@ -0,0 +1,72 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.Ticket;
+import com.foodorder.entity.TicketReply;
+import com.foodorder.repository.TicketReplyRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The Ticket.replies collection is second-level cached; adding a reply must not leave a
+ * ticket's cached collection behind the database.
+ */
+@SpringBootTest
+class TicketRepliesCacheTest {
+    
+    private static final String REPLIES = Ticket.class.getName() + ".replies";
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketReplyRepository ticketReplyRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void addingAReplyEvictsTheCachedCollection() {
+        Long ticketId = ticketReplyRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1))
+                .get(0).getTicket().getId();
+        int before = cachedReplyCount(ticketId);
+        
+        // Second read comes from the collection cache
+        long hits = cacheHits();
+        assertEquals(before, cachedReplyCount(ticketId));
+        assertEquals(hits + 1, cacheHits());
+        
+        ticketService.addReplyToTicket(ticketId,
+                new TicketReply("Any update on this?", "Customer", "customer@example.lk", null));
+        
+        // The evicted collection is loaded from the database, then cached again
+        hits = cacheHits();
+        assertEquals(before + 1, cachedReplyCount(ticketId));
+        assertEquals(hits, cacheHits());
+        assertEquals(before + 1, cachedReplyCount(ticketId));
+        assertEquals(hits + 1, cacheHits());
+    }
+    
+    private int cachedReplyCount(Long ticketId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> ticketService.getTicketById(ticketId).orElseThrow().getReplies().size());
+    }
+    
+    private long cacheHits() {
+        CollectionStatistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getCollectionStatistics(REPLIES);
+        return statistics.getCacheHitCount();
+    }
+}
@@ -0,0 +1,78 @@
+package com.foodorder.service;
+
+import com.foodorder.entity.Ticket;
+import com.foodorder.entity.TicketReply;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketSearchIndexTest {
+    
+    private final TicketSearchIndex index = new TicketSearchIndex();
+    
+    @Test
+    void ranksByScoreAndRequiresEveryTerm() {
+        index.indexTicket(ticket(1L, "Cold food", "Arrived late"));
+        index.indexTicket(ticket(2L, "Late delivery", "Food was late"));
+        index.indexTicket(ticket(3L, "Cold food", "Cold food and more cold food"));
+        
+        assertEquals(List.of(3L, 1L), index.search("cold food", 10));
+        assertEquals(List.of(3L), index.search("cold food", 1));
+        assertEquals(List.of(2L), index.search("deliv*", 10));
+        assertEquals(List.of(), index.search("cold delivery", 10));
+    }
+    
+    @Test
+    void matchesAcrossBodyAndReplies() {
+        Ticket ticket = ticket(1L, "Missing items", "Half the order was missing");
+        index.indexTicket(ticket);
+        index.indexReply(reply(10L, ticket, "We have processed your refund"));
+        
+        assertEquals(List.of(1L), index.search("missing refund", 10));
+    }
+    
+    @Test
+    void compactionDropsDeletedDocumentsAndKeepsLiveOnes() {
+        int tickets = 2000;
+        for (long id = 1; id <= tickets; id++) {
+            Ticket ticket = ticket(id, "Wrong order", "Received someone else's order");
+            index.indexTicket(ticket);
+            index.indexReply(reply(id, ticket, "Sorry about the mixup"));
+        }
+        // Rewrite most bodies twice: enough deleted documents to trigger compaction mid-way
+        for (long id = 1; id <= 1500; id++) {
+            index.indexTicket(ticket(id, "Delivery late", "Still waiting"));
+        }
+        for (long id = 1; id <= 1500; id++) {
+            index.indexTicket(ticket(id, "Payment charged twice", "Duplicate charge on card"));
+        }
+        
+        assertEquals(2 * tickets, index.size());
+        assertEquals(1500, index.search("charged", tickets).size());
+        assertEquals(500, index.search("wrong", tickets).size());
+        assertEquals(tickets, index.search("mixup", tickets).size());
+        assertTrue(index.search("charged mixup", tickets).contains(1L));
+        
+        index.removeTicket(1L);
+        assertEquals(2 * tickets - 2, index.size());
+        assertFalse(index.search("charged", tickets).contains(1L));
+    }
+    
+    private static Ticket ticket(Long id, String title, String description) {
+        Ticket ticket = new Ticket();
+        ticket.setId(id);
+        ticket.setTitle(title);
+        ticket.setDescription(description);
+        return ticket;
+    }
+    
+    private static TicketReply reply(Long id, Ticket ticket, String message) {
+        TicketReply reply = new TicketReply(message, "Support Team", "support@foodordering.lk", ticket);
+        reply.setId(id);
+        return reply;
+    }
+}